@@ -0,0 +1,143 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second for persisting bookings in one transaction, with pooled sequence ids ({@code saveBookings})
+ * and with IDENTITY ids on a table of the same shape ({@code saveIdentityBookings}).
+ * Hibernate executes an IDENTITY insert as soon as the entity is persisted, so that variant is not batched
+ * for any {@code batchSize}; {@code batchSize=0} shows the sequence variant with batching off.
+ * In-memory H2 has no network round trips, so on a real server the gap is wider.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final int ROWS = 1000;
+
+    @Param({"0", "50"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+
+    private TransactionTemplate transactionTemplate;
+
+    private EntityManager entityManager;
+
+    private User booker;
+
+    private Item item;
+
+    @Setup
+    public void setUp() {
+        context = SeededContext.boot("spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        context.getBean(JdbcTemplate.class).execute(IdentityBooking.CREATE_TABLE);
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        User owner = userRepository.save(user("owner"));
+        booker = userRepository.save(user("booker"));
+
+        Item newItem = new Item();
+        newItem.setName("Дрель");
+        newItem.setDescription("Аккумуляторная дрель");
+        newItem.setAvailable(true);
+        newItem.setOwner(owner);
+        item = context.getBean(ItemRepository.class).save(newItem);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearBookings() {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.execute("TRUNCATE TABLE booking");
+        jdbcTemplate.execute("TRUNCATE TABLE identity_booking");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void saveBookings() {
+        LocalDateTime start = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>(ROWS);
+
+        for (int i = 0; i < ROWS; i++) {
+            Booking booking = new Booking();
+            booking.setBookingDateStart(start.plusHours(i));
+            booking.setBookingDateEnd(start.plusHours(i + 1));
+            booking.setStatus(BookingStatus.WAITING);
+            booking.setUser(booker);
+            booking.setItem(item);
+            booking.setOwnerId(item.getOwner().getId());
+            bookings.add(booking);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> bookings.forEach(entityManager::persist));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void saveIdentityBookings() {
+        LocalDateTime start = LocalDateTime.now();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                IdentityBooking booking = new IdentityBooking();
+                booking.setBookingDateStart(start.plusHours(i));
+                booking.setBookingDateEnd(start.plusHours(i + 1));
+                booking.setStatus(BookingStatus.WAITING);
+                booking.setUser(booker);
+                booking.setItem(item);
+                booking.setOwnerId(item.getOwner().getId());
+                entityManager.persist(booking);
+            }
+        });
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+
+        return user;
+    }
+}
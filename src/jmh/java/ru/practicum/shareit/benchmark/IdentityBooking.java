@@ -0,0 +1,56 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * {@code Booking} as it was mapped before the move to sequences: an IDENTITY id on a table of the same shape.
+ * Only {@link BulkInsertBenchmark} creates the table.
+ */
+@Entity
+@Table(name = "identity_booking")
+@Getter
+@Setter
+@NoArgsConstructor
+public class IdentityBooking {
+
+    static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS identity_booking (" +
+            "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+            "booking_date_start TIMESTAMP NOT NULL, " +
+            "booking_date_end TIMESTAMP NOT NULL, " +
+            "status VARCHAR(50), " +
+            "user_id BIGINT NOT NULL REFERENCES users (id), " +
+            "item_id BIGINT NOT NULL REFERENCES items (id), " +
+            "owner_id BIGINT NOT NULL)";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "booking_date_start", nullable = false)
+    private LocalDateTime bookingDateStart;
+
+    @Column(name = "booking_date_end", nullable = false)
+    private LocalDateTime bookingDateEnd;
+
+    @Enumerated(EnumType.STRING)
+    private BookingStatus status;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(nullable = false)
+    private Item item;
+
+    @Column(name = "owner_id", nullable = false)
+    private long ownerId;
+}
@@ -0,0 +1,293 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.modelmapper.Converter;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.TypeMap;
+import org.modelmapper.TypeToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDtoWithBooking;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingRef;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reflective ModelMapper against the hand-written mappers for the list mappings
+ * of {@code getAllUserBooking} and {@code getOwnersItems}.
+ * The ModelMapper side is a copy of the former {@code ShareItConfig}: its last/next booking converters scan
+ * every booking of the item and call {@code LocalDateTime.now()} per element. Items on that side carry
+ * {@code bookingsPerItem} bookings the way {@code Item.getBookings()} used to; the hand-written side
+ * maps the stored booking references that replaced the scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    @Param({"10", "100"})
+    private int bookingsPerItem;
+
+    private ModelMapper modelMapper;
+
+    private List<Booking> bookings;
+
+    private List<Item> items;
+
+    private List<LegacyItem> legacyItems;
+
+    @Setup
+    public void setUp() {
+        modelMapper = legacyModelMapper();
+        bookings = new ArrayList<>(size);
+        items = new ArrayList<>(size);
+        legacyItems = new ArrayList<>(size);
+
+        User owner = user(1);
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < size; i++) {
+            User booker = user(i + 2);
+
+            Item item = new Item();
+            item.setId(i + 1);
+            item.setName("Item " + i);
+            item.setDescription("Description of item " + i);
+            item.setAvailable(true);
+            item.setOwner(owner);
+            item.setLastBooking(new ItemBookingRef(i * 2L + 1, booker.getId(), now.minusDays(1)));
+            item.setNextBooking(new ItemBookingRef(i * 2L + 2, booker.getId(), now.plusDays(1)));
+            item.setComments(List.of(comment(i + 1, booker, item, now)));
+            items.add(item);
+
+            LegacyItem legacyItem = new LegacyItem();
+            legacyItem.setId(item.getId());
+            legacyItem.setName(item.getName());
+            legacyItem.setDescription(item.getDescription());
+            legacyItem.setAvailable(true);
+            legacyItem.setComments(item.getComments());
+            legacyItem.setBookings(itemBookings(item, booker, now));
+            legacyItems.add(legacyItem);
+
+            Booking booking = new Booking();
+            booking.setId(i + 1);
+            booking.setBookingDateStart(now.plusDays(i));
+            booking.setBookingDateEnd(now.plusDays(i + 1));
+            booking.setStatus(BookingStatus.APPROVED);
+            booking.setUser(booker);
+            booking.setItem(item);
+            bookings.add(booking);
+        }
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingsWithModelMapper() {
+        return modelMapper.map(bookings, new TypeToken<List<BookingDto>>() {}.getType());
+    }
+
+    @Benchmark
+    public List<BookingDto> bookingsWithMapper() {
+        List<BookingDto> dtos = new ArrayList<>(bookings.size());
+
+        for (Booking booking : bookings) {
+            dtos.add(BookingMapper.toBookingDto(booking));
+        }
+
+        return dtos;
+    }
+
+    @Benchmark
+    public List<ItemDtoWithBooking> itemsWithBookingConverters() {
+        return modelMapper.map(legacyItems, new TypeToken<List<ItemDtoWithBooking>>() {}.getType());
+    }
+
+    @Benchmark
+    public List<ItemDtoWithBooking> itemsWithMapper() {
+        return ItemMapper.toItemDtosWithBooking(items);
+    }
+
+    private static ModelMapper legacyModelMapper() {
+        ModelMapper mapper = new ModelMapper();
+
+        TypeMap<Booking, BookingDto> bookingToBookingDtoTypeMap =
+                mapper.createTypeMap(Booking.class, BookingDto.class);
+
+        bookingToBookingDtoTypeMap.addMappings(
+                m -> m.map(Booking::getUser, BookingDto::setBooker)
+        );
+
+        TypeMap<LegacyItem, ItemDtoWithBooking> itemItemDtoWithBookingTypeMap =
+                mapper.createTypeMap(LegacyItem.class, ItemDtoWithBooking.class);
+
+        Converter<List<Booking>, ShortBookingDto> lastBookingConverter =
+                context -> {
+                    if (context.getSource() == null || context.getSource().size() == 0) return null;
+
+                    Optional<Booking> lastBookingOptional = context.getSource().stream()
+                            .filter(b -> b.getBookingDateStart().isBefore(LocalDateTime.now())
+                                    && !b.getStatus().equals(BookingStatus.REJECTED))
+                            .min((b1, b2) -> {
+                                if (b1.getBookingDateStart().isEqual(b2.getBookingDateStart())) return 0;
+
+                                if (b1.getBookingDateStart().isBefore(b2.getBookingDateStart())) {
+                                    return 1;
+                                } else {
+                                    return -1;
+                                }
+                            });
+
+                    if (lastBookingOptional.isEmpty()) return null;
+
+                    Booking lastBooking = lastBookingOptional.get();
+                    ShortBookingDto dto = new ShortBookingDto();
+                    dto.setId(lastBooking.getId());
+                    dto.setBookerId(lastBooking.getUser().getId());
+
+                    return dto;
+                };
+
+        Converter<List<Booking>, ShortBookingDto> nextBookingConverter =
+                context -> {
+                    if (context.getSource() == null || context.getSource().size() == 0) return null;
+
+                    Optional<Booking> nextBookingOptional = context.getSource().stream()
+                            .filter(b -> b.getBookingDateStart().isAfter(LocalDateTime.now())
+                                    && !b.getStatus().equals(BookingStatus.REJECTED))
+                            .min((b1, b2) -> {
+                                if (b2.getBookingDateStart().isEqual(b1.getBookingDateStart())) return 0;
+
+                                if (b2.getBookingDateStart().isBefore(b1.getBookingDateStart())) {
+                                    return 1;
+                                } else {
+                                    return -1;
+                                }
+                            });
+
+                    if (nextBookingOptional.isEmpty()) return null;
+
+                    Booking nextBooking = nextBookingOptional.get();
+                    ShortBookingDto dto = new ShortBookingDto();
+                    dto.setId(nextBooking.getId());
+                    dto.setBookerId(nextBooking.getUser().getId());
+
+                    return dto;
+                };
+
+        itemItemDtoWithBookingTypeMap.addMappings(
+                m -> m.using(lastBookingConverter)
+                        .map(LegacyItem::getBookings, ItemDtoWithBooking::setLastBooking)
+        );
+
+        itemItemDtoWithBookingTypeMap.addMappings(
+                m -> m.using(nextBookingConverter)
+                        .map(LegacyItem::getBookings, ItemDtoWithBooking::setNextBooking)
+        );
+
+        TypeMap<Comment, CommentDto> commentCommentDtoTypeMap =
+                mapper.createTypeMap(Comment.class, CommentDto.class);
+
+        Converter<User, String> userStringConverter =
+                context -> {
+                    if (context.getSource() == null) return null;
+
+                    return context.getSource().getName();
+                };
+
+        commentCommentDtoTypeMap.addMappings(
+                m -> m.using(userStringConverter)
+                        .map(Comment::getUser, CommentDto::setAuthorName)
+        );
+
+        return mapper;
+    }
+
+    /**
+     * Bookings of the item spread around now, a tenth of them rejected.
+     */
+    private List<Booking> itemBookings(Item item, User booker, LocalDateTime now) {
+        List<Booking> itemBookings = new ArrayList<>(bookingsPerItem);
+
+        for (int j = 0; j < bookingsPerItem; j++) {
+            Booking booking = new Booking();
+            booking.setId(item.getId() * bookingsPerItem + j);
+            booking.setBookingDateStart(now.plusDays(j - bookingsPerItem / 2));
+            booking.setBookingDateEnd(booking.getBookingDateStart().plusHours(12));
+            booking.setStatus(j % 10 == 9 ? BookingStatus.REJECTED : BookingStatus.APPROVED);
+            booking.setUser(booker);
+            booking.setItem(item);
+            itemBookings.add(booking);
+        }
+
+        return itemBookings;
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("user" + id);
+        user.setEmail("user" + id + "@example.com");
+
+        return user;
+    }
+
+    private static Comment comment(long id, User author, Item item, LocalDateTime created) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setText("Comment " + id);
+        comment.setUser(author);
+        comment.setItem(item);
+        comment.setCreated(created);
+
+        return comment;
+    }
+
+    /**
+     * The mapped shape of {@code Item} before the booking references: the whole booking list of the item.
+     */
+    @Getter
+    @Setter
+    public static class LegacyItem {
+
+        private long id;
+
+        private String name;
+
+        private String description;
+
+        private boolean available;
+
+        private List<Booking> bookings;
+
+        private List<Comment> comments;
+    }
+}
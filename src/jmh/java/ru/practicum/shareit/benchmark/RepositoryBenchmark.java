@@ -0,0 +1,90 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Item search and owner booking lists against a seeded in-memory H2 database.
+ * The number of bookings is ten times the number of items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    private static final String KEYWORD = "дрель";
+
+    @Param({"1000", "10000"})
+    private int items;
+
+    private ConfigurableApplicationContext context;
+
+    private ItemRepository itemRepository;
+
+    private BookingService bookingService;
+
+    private EntityManager entityManager;
+
+    @Setup
+    public void setUp() {
+        context = SeededContext.start(items, items * 10);
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingService = context.getBean(BookingService.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> findByAvailableAndKeyword() {
+        return SeededContext.findByAvailableAndKeyword(entityManager, KEYWORD);
+    }
+
+    @Benchmark
+    public List<Item> searchAvailable() {
+        return itemRepository.searchAvailable(KEYWORD, 0, 100);
+    }
+
+    @Benchmark
+    public List<BookingDto> getAllOwnerBookingFirstPage() {
+        return bookingService.getAllOwnerBooking(SeededContext.OWNER_ID, "ALL", 0, 20, null);
+    }
+
+    @Benchmark
+    public List<BookingDto> getAllOwnerBookingUnpaged() {
+        return bookingService.getAllOwnerBooking(SeededContext.OWNER_ID, "ALL", 0, null, null);
+    }
+
+    @Benchmark
+    public List<BookingDto> getAllOwnerBookingFuture() {
+        return bookingService.getAllOwnerBooking(SeededContext.OWNER_ID, "FUTURE", 0, 20, null);
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Boots the application against a private in-memory H2 database and optionally fills it with
+ * one owner, a fixed number of bookers and the requested number of items and bookings.
+ * Rows are written with plain JDBC batches so seeding stays cheap next to the measurement.
+ */
+final class SeededContext {
+
+    static final long OWNER_ID = 1;
+
+    private static final int BOOKERS = 100;
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String LEGACY_SEARCH = "SELECT * FROM items WHERE available = true " +
+            "AND (name ILIKE '%' || :keyword || '%' OR description ILIKE '%' || :keyword || '%')";
+
+    private static final String[] WORDS = {
+        "дрель", "отвертка", "пила", "молоток", "лестница", "палатка", "велосипед", "шуруповерт"
+    };
+
+    private SeededContext() {
+    }
+
+    static ConfigurableApplicationContext start(int items, int bookings) {
+        ConfigurableApplicationContext context = boot();
+        seed(context.getBean(JdbcTemplate.class), items, bookings);
+
+        return context;
+    }
+
+    static ConfigurableApplicationContext boot(String... properties) {
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID(),
+                        "spring.jpa.show-sql=false",
+                        "server.port=0",
+                        "logging.level.root=WARN",
+                        "logging.level.ru.practicum.shareit=WARN"
+                )
+                .properties(properties)
+                .run();
+    }
+
+    /**
+     * The substring scan {@code ItemRepository.findByAvailableAndKeyword} ran before full-text search,
+     * kept here as the baseline for {@link RepositoryBenchmark}.
+     */
+    @SuppressWarnings("unchecked")
+    static List<Item> findByAvailableAndKeyword(EntityManager entityManager, String keyword) {
+        return entityManager.createNativeQuery(LEGACY_SEARCH, Item.class)
+                .setParameter("keyword", keyword)
+                .getResultList();
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int items, int bookings) {
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>();
+
+        for (int i = 1; i <= BOOKERS + 1; i++) {
+            rows.add(new Object[]{i, "user" + i + "@example.com", "user" + i});
+        }
+
+        batch(jdbcTemplate, "INSERT INTO users (id, email, name) VALUES (?, ?, ?)", rows);
+
+        for (int i = 0; i < items; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            rows.add(new Object[]{i + 1, word + " " + i, "Описание: " + word + ", состояние хорошее", random.nextInt(10) > 0, OWNER_ID});
+        }
+
+        batch(jdbcTemplate, "INSERT INTO items (id, name, description, available, user_id) VALUES (?, ?, ?, ?, ?)", rows);
+
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < bookings; i++) {
+            LocalDateTime start = now.plusHours(random.nextInt(24 * 365 * 2) - 24 * 365);
+            rows.add(new Object[]{
+                i + 1,
+                Timestamp.valueOf(start),
+                Timestamp.valueOf(start.plusHours(1 + random.nextInt(72))),
+                random.nextInt(4) == 0 ? "WAITING" : "APPROVED",
+                OWNER_ID + 1 + random.nextInt(BOOKERS),
+                1 + random.nextInt(items),
+                OWNER_ID
+            });
+        }
+
+        batch(jdbcTemplate,
+                "INSERT INTO booking (id, booking_date_start, booking_date_end, status, user_id, item_id, owner_id) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                rows);
+    }
+
+    private static void batch(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+
+        rows.clear();
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.archive;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Upper bound of the end dates in {@code booking_archive}: no archived booking ends after it.
+ * Empty while the archive is empty, so searches never touch the cold table in that case.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingArchiveWatermark {
+
+    private final BookingArchiveRepository bookingArchiveRepository;
+
+    private final AtomicReference<LocalDateTime> watermark = new AtomicReference<>();
+
+    @PostConstruct
+    public void load() {
+        watermark.set(bookingArchiveRepository.findMaxEnd().orElse(null));
+        log.debug("Archive watermark loaded: {}", watermark.get());
+    }
+
+    public Optional<LocalDateTime> get() {
+        return Optional.ofNullable(watermark.get());
+    }
+
+    /**
+     * Must be called before bookings ending up to {@code end} are moved, so readers
+     * start looking at the archive no later than the rows leave the hot table.
+     */
+    public void advanceTo(LocalDateTime end) {
+        watermark.accumulateAndGet(end, (current, next) -> current == null || next.isAfter(current) ? next : current);
+    }
+}
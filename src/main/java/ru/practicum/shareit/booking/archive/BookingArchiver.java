@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves bookings that ended more than {@code shareit.archive.after-days} days ago into {@code booking_archive}.
+ * Rows are walked by id and every chunk of {@code shareit.archive.batch-size} bookings is copied
+ * and deleted in its own short transaction, so a run never holds locks on the whole history.
+ */
+@Slf4j
+@Component
+public class BookingArchiver {
+
+    private final BookingRepository bookingRepository;
+
+    private final BookingArchiveRepository bookingArchiveRepository;
+
+    private final BookingArchiveWatermark watermark;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int afterDays;
+
+    private final int batchSize;
+
+    public BookingArchiver(BookingRepository bookingRepository,
+                           BookingArchiveRepository bookingArchiveRepository,
+                           BookingArchiveWatermark watermark,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${shareit.archive.after-days:365}") int afterDays,
+                           @Value("${shareit.archive.batch-size:500}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.bookingArchiveRepository = bookingArchiveRepository;
+        this.watermark = watermark;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.afterDays = afterDays;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${shareit.archive.initial-delay:PT1M}",
+            fixedDelayString = "${shareit.archive.interval:PT1H}")
+    public void archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(afterDays);
+        log.debug("Entering archive method: cutoff = {}", cutoff);
+
+        watermark.advanceTo(cutoff);
+
+        long lastId = 0;
+        int moved = 0;
+
+        try {
+            while (true) {
+                List<Long> ids = bookingRepository.findIdsEndedBefore(cutoff, lastId, PageRequest.of(0, batchSize));
+
+                if (ids.isEmpty()) break;
+
+                transactionTemplate.executeWithoutResult(status -> {
+                    bookingArchiveRepository.copyFromBooking(ids);
+                    bookingRepository.deleteByIds(ids);
+                });
+
+                lastId = ids.get(ids.size() - 1);
+                moved += ids.size();
+
+                if (ids.size() < batchSize) break;
+            }
+        } catch (Exception exc) {
+            log.error("Booking archiving stopped after {} bookings: {}", moved, exc.toString());
+
+            return;
+        }
+
+        log.debug("Exiting archive method: {} bookings moved", moved);
+    }
+}
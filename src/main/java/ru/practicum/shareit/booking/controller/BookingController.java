@@ -3,19 +3,33 @@ package ru.practicum.shareit.booking.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
 import java.util.List;
 
+@Validated
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
 
     @ResponseStatus(HttpStatus.CREATED)
@@ -29,6 +43,28 @@ public class BookingController {
         return bookingService.createBooking(userId, dto);
     }
 
+    @PostMapping(
+            value = "/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<BookingBatchResultDto> createBookings(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestBody @NotEmpty @Size(max = 1000) List<CreateBookingDto> dtos
+    ) {
+        return bookingService.createBookings(userId, dtos);
+    }
+
+    @PatchMapping(
+            value = "/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public BookingDecisionResultDto decideBookings(
+            @RequestHeader("X-Sharer-User-Id") long ownerId,
+            @RequestBody @Valid BookingDecisionDto dto
+    ) {
+        return bookingService.decideBookings(ownerId, dto);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approveBooking(
             @RequestHeader("X-Sharer-User-Id") long userId,
@@ -47,18 +83,40 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAllUserBooking(
+    public ResponseEntity<List<BookingDto>> getAllUserBooking(
             @RequestHeader("X-Sharer-User-Id") long userId,
-            @RequestParam(defaultValue = "ALL") String state
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(required = false) @Positive Integer size,
+            @RequestParam(required = false) String cursor
     ) {
-        return bookingService.getAllUserBooking(userId, state);
+        return withNextCursor(bookingService.getAllUserBooking(userId, state, from, size, cursor), size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllOwnerBooking(
+    public ResponseEntity<List<BookingDto>> getAllOwnerBooking(
+            @RequestHeader("X-Sharer-User-Id") long ownerId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(required = false) @Positive Integer size,
+            @RequestParam(required = false) String cursor
+    ) {
+        return withNextCursor(bookingService.getAllOwnerBooking(ownerId, state, from, size, cursor), size);
+    }
+
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto getOwnerBookingSummary(
             @RequestHeader("X-Sharer-User-Id") long ownerId,
-            @RequestParam(defaultValue = "ALL") String state
+            @RequestParam(defaultValue = "false") boolean byItem
     ) {
-        return bookingService.getAllOwnerBooking(ownerId, state);
+        return bookingService.getOwnerBookingSummary(ownerId, byItem);
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, Integer size) {
+        if (size == null || bookings.size() < size) return ResponseEntity.ok(bookings);
+
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, BookingCursor.of(bookings.get(bookings.size() - 1)).encode())
+                .body(bookings);
     }
 }
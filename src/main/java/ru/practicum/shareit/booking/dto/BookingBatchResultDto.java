@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Outcome of one entry of a batch booking request.
+ * {@code code} follows the HTTP status the entry would get from {@code POST /bookings}.
+ */
+@Data
+@AllArgsConstructor
+public class BookingBatchResultDto {
+
+    private int index;
+
+    private int code;
+
+    private BookingDto booking;
+
+    private String error;
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a booking list ordered by (end date DESC, id DESC).
+ * The next page holds the bookings strictly after this position.
+ */
+@Getter
+@RequiredArgsConstructor
+public class BookingCursor {
+
+    public static final BookingCursor FIRST =
+            new BookingCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime end;
+
+    private final long id;
+
+    public static BookingCursor of(BookingDto lastBooking) {
+        return new BookingCursor(lastBooking.getEnd(), lastBooking.getId());
+    }
+
+    public static BookingCursor decode(String token) {
+        if (token == null || token.isBlank()) return FIRST;
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.lastIndexOf(SEPARATOR);
+
+            return new BookingCursor(
+                    LocalDateTime.parse(decoded.substring(0, separatorIndex)),
+                    Long.parseLong(decoded.substring(separatorIndex + 1))
+            );
+        } catch (IndexOutOfBoundsException | DateTimeParseException exc) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, exc);
+        }
+    }
+
+    public String encode() {
+        String raw = end + SEPARATOR + id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
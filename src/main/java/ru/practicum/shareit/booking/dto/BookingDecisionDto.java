@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+public class BookingDecisionDto {
+
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@NotNull Long> bookingIds;
+
+    @NotNull
+    private Boolean approved;
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BookingDecisionResultDto {
+
+    private BookingStatus status;
+
+    private List<Long> changed;
+
+    private List<Long> unchanged;
+}
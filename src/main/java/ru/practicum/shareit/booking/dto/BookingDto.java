@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.dto;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -8,6 +9,7 @@ import ru.practicum.shareit.user.dto.UserDto;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 public class BookingDto {
 
     private long id;
@@ -21,4 +23,27 @@ public class BookingDto {
     private UserDto booker;
 
     private ItemDto item;
+
+    /**
+     * Constructor projection used by {@code BookingSearchRepository}.
+     */
+    public BookingDto(long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                      long bookerId, String bookerEmail, String bookerName,
+                      long itemId, String itemName, String itemDescription, boolean itemAvailable) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.status = status;
+
+        this.booker = new UserDto();
+        this.booker.setId(bookerId);
+        this.booker.setEmail(bookerEmail);
+        this.booker.setName(bookerName);
+
+        this.item = new ItemDto();
+        this.item.setId(itemId);
+        this.item.setName(itemName);
+        this.item.setDescription(itemDescription);
+        this.item.setAvailable(itemAvailable);
+    }
 }
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of bookings per {@link ru.practicum.shareit.booking.enums.BookingSearchState}.
+ * Holds the item id when the counts belong to one item.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingStateCountDto {
+
+    private Long itemId;
+
+    private long all;
+
+    private long current;
+
+    private long past;
+
+    private long future;
+
+    private long waiting;
+
+    private long rejected;
+
+    public void add(BookingStateCountDto other) {
+        all += other.all;
+        current += other.current;
+        past += other.past;
+        future += other.future;
+        waiting += other.waiting;
+        rejected += other.rejected;
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Committed status of a booking together with what an approval needs to check it.
+ */
+@Data
+@AllArgsConstructor
+public class BookingStateDto {
+
+    private long bookingId;
+
+    private long itemId;
+
+    private long bookerId;
+
+    private long ownerId;
+
+    private BookingStatus status;
+
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+}
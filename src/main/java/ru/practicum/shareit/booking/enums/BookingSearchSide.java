@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.enums;
+
+public enum BookingSearchSide {
+
+    BOOKER,
+
+    OWNER
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@code BookingService} after a booking was created or its status changed.
+ * {@code previousStatus} is {@code null} for a new booking.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class BookingChangedEvent {
+
+    private final long bookingId;
+
+    private final long itemId;
+
+    private final long bookerId;
+
+    private final BookingStatus previousStatus;
+
+    private final BookingStatus status;
+
+    private final LocalDateTime start;
+
+    private final LocalDateTime end;
+
+    public boolean isCreated() {
+        return previousStatus == null;
+    }
+}
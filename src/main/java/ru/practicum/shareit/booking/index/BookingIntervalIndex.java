@@ -0,0 +1,277 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of WAITING and APPROVED booking intervals per item, sorted by start date and booking id.
+ * Bookings created through this index never overlap, but rows written before it existed may, so an overlap
+ * check walks back from the end of the probed window as far as the longest interval of the item reaches.
+ * Check-then-reserve sequences must run under {@link #lockFor(long)}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private static final LocalDateTime FAR_FUTURE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, ItemIntervals> intervalsByItem = new ConcurrentHashMap<>();
+
+    private final Lock[] locks = createLocks();
+
+    @PostConstruct
+    public void rebuild() {
+        log.debug("Entering rebuild method");
+
+        List<BookingIntervalDto> intervals = bookingRepository.findAllIntervalsByStatusInAndEndAfter(
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED),
+                LocalDateTime.now()
+        );
+
+        intervalsByItem.clear();
+        intervals.forEach(interval -> intervalsOf(interval.getItemId()).add(interval));
+        log.debug("Exiting rebuild method: {} intervals indexed", intervals.size());
+    }
+
+    public Lock lockFor(long itemId) {
+        return locks[stripeOf(itemId)];
+    }
+
+    /**
+     * Distinct stripe locks of the items in a fixed order, so they can be taken together without deadlocks.
+     */
+    public List<Lock> locksFor(Collection<Long> itemIds) {
+        return itemIds.stream()
+                .mapToInt(BookingIntervalIndex::stripeOf)
+                .distinct()
+                .sorted()
+                .mapToObj(stripe -> locks[stripe])
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Whether an indexed interval of the item intersects [start, end); intervals that only touch it do not.
+     */
+    public boolean hasOverlap(long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemIntervals intervals = intervalsByItem.get(itemId);
+
+        if (intervals == null) return false;
+
+        LocalDateTime earliestReachingStart = start.minus(intervals.longest);
+
+        for (BookingIntervalDto interval : intervals.startingBefore(end)) {
+            if (interval.getEnd().isAfter(start)) return true;
+
+            if (!interval.getStart().isAfter(earliestReachingStart)) return false;
+        }
+
+        return false;
+    }
+
+    /**
+     * Adds the interval right away and takes it back if the surrounding transaction rolls back.
+     */
+    public void reserve(long itemId, long bookingId, LocalDateTime start, LocalDateTime end) {
+        Lock lock = lockFor(itemId);
+        lock.lock();
+
+        try {
+            ItemIntervals intervals = intervalsOf(itemId);
+            intervals.removeEndedBefore(LocalDateTime.now());
+            intervals.add(new BookingIntervalDto(bookingId, itemId, start, end));
+        } finally {
+            lock.unlock();
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) remove(itemId, bookingId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Removes the interval of the booking once the surrounding transaction commits.
+     */
+    public void release(long itemId, long bookingId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remove(itemId, bookingId);
+
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remove(itemId, bookingId);
+            }
+        });
+    }
+
+    /**
+     * Forgets the items of the deleted user and reloads the intervals of the items they had booked.
+     */
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        log.debug("Updating intervals for deleted user: {}", event);
+
+        for (long itemId : event.getOwnedItemIds()) {
+            Lock lock = lockFor(itemId);
+            lock.lock();
+
+            try {
+                intervalsByItem.remove(itemId);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        event.getBookedItemIds().forEach(this::reload);
+    }
+
+    private void reload(long itemId) {
+        Lock lock = lockFor(itemId);
+        lock.lock();
+
+        try {
+            intervalsByItem.remove(itemId);
+            bookingRepository.findIntervalsOfItemOverlapping(itemId, BookingStatus.REJECTED, LocalDateTime.now(), FAR_FUTURE)
+                    .forEach(interval -> intervalsOf(itemId).add(interval));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(long itemId, long bookingId) {
+        Lock lock = lockFor(itemId);
+        lock.lock();
+
+        try {
+            ItemIntervals intervals = intervalsByItem.get(itemId);
+
+            if (intervals == null) return;
+
+            intervals.remove(bookingId);
+
+            if (intervals.byStart.isEmpty()) intervalsByItem.remove(itemId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ItemIntervals intervalsOf(long itemId) {
+        return intervalsByItem.computeIfAbsent(itemId, id -> new ItemIntervals());
+    }
+
+    private static int stripeOf(long itemId) {
+        return Long.hashCode(itemId) & (LOCK_STRIPES - 1);
+    }
+
+    private static Lock[] createLocks() {
+        Lock[] stripes = new Lock[LOCK_STRIPES];
+
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+
+        return stripes;
+    }
+
+    /**
+     * Intervals of one item. {@code longest} only grows between reloads, which keeps overlap checks correct
+     * and at worst makes them look at a few more intervals. Keys are also kept by booking id, because the
+     * start a caller reads back from the database may be truncated compared to the one that was indexed.
+     */
+    private static final class ItemIntervals {
+
+        private final ConcurrentNavigableMap<Key, BookingIntervalDto> byStart = new ConcurrentSkipListMap<>();
+
+        private final Map<Long, Key> keysByBooking = new ConcurrentHashMap<>();
+
+        private volatile Duration longest = Duration.ZERO;
+
+        void add(BookingIntervalDto interval) {
+            Key key = new Key(interval.getStart(), interval.getBookingId());
+            Key previous = keysByBooking.put(interval.getBookingId(), key);
+
+            if (previous != null) byStart.remove(previous);
+
+            byStart.put(key, interval);
+            Duration length = Duration.between(interval.getStart(), interval.getEnd());
+
+            if (length.compareTo(longest) > 0) longest = length;
+        }
+
+        /**
+         * Intervals starting before {@code end}, latest start first.
+         */
+        Collection<BookingIntervalDto> startingBefore(LocalDateTime end) {
+            return byStart.headMap(new Key(end, Long.MIN_VALUE)).descendingMap().values();
+        }
+
+        void remove(long bookingId) {
+            Key key = keysByBooking.remove(bookingId);
+
+            if (key != null) byStart.remove(key);
+        }
+
+        void removeEndedBefore(LocalDateTime now) {
+            byStart.headMap(new Key(now, Long.MIN_VALUE)).values().removeIf(interval -> {
+                if (!interval.getEnd().isBefore(now)) return false;
+
+                keysByBooking.remove(interval.getBookingId());
+
+                return true;
+            });
+        }
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Key implements Comparable<Key> {
+
+        private static final Comparator<Key> ORDER = Comparator
+                .comparing((Key key) -> key.start)
+                .thenComparingLong(key -> key.bookingId);
+
+        private final LocalDateTime start;
+
+        private final long bookingId;
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
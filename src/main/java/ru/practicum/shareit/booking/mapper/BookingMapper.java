@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.mapper;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRecord;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+public final class BookingMapper {
+
+    private BookingMapper() {
+    }
+
+    public static Booking toBooking(CreateBookingDto dto, User booker, Item item) {
+        Booking booking = new Booking();
+        booking.setBookingDateStart(dto.getStart());
+        booking.setBookingDateEnd(dto.getEnd());
+        booking.setStatus(BookingStatus.WAITING);
+        booking.setUser(booker);
+        booking.setItem(item);
+        booking.setOwnerId(item.getOwner().getId());
+
+        return booking;
+    }
+
+    public static BookingDto toBookingDto(BookingRecord booking) {
+        BookingDto dto = new BookingDto();
+        dto.setId(booking.getId());
+        dto.setStart(booking.getBookingDateStart());
+        dto.setEnd(booking.getBookingDateEnd());
+        dto.setStatus(booking.getStatus());
+        dto.setBooker(UserMapper.toUserDto(booking.getUser()));
+        dto.setItem(ItemMapper.toItemDto(booking.getItem()));
+
+        return dto;
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Booking that ended long ago and was moved out of the {@code booking} table.
+ * Keeps the id and the field names of {@link Booking}, so the same queries run against both.
+ */
+@Entity
+@Table(name = "booking_archive")
+@Getter
+@Setter
+@ToString(exclude = {"user", "item"})
+@NoArgsConstructor
+public class ArchivedBooking implements BookingRecord {
+
+    @Id
+    private long id;
+
+    @Column(name = "booking_date_start", nullable = false)
+    private LocalDateTime bookingDateStart;
+
+    @Column(name = "booking_date_end", nullable = false)
+    private LocalDateTime bookingDateEnd;
+
+    @Enumerated(EnumType.STRING)
+    private BookingStatus status;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(nullable = false)
+    private Item item;
+
+    /**
+     * Copy of the item owner id, so owner-side queries do not join {@code items}.
+     */
+    @Column(name = "owner_id", nullable = false)
+    private long ownerId;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+
+        return id != 0 && id == ((ArchivedBooking) o).getId();
+    }
+
+    @Override
+    public int hashCode() {
+        return Hibernate.getClass(this).hashCode();
+    }
+}
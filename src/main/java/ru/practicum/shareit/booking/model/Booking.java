@@ -1,7 +1,10 @@
 package ru.practicum.shareit.booking.model;
 
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -11,12 +14,15 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "booking")
-@Data
+@Getter
+@Setter
+@ToString(exclude = {"user", "item"})
 @NoArgsConstructor
-public class Booking {
+public class Booking implements BookingRecord {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private long id;
 
     @Column(name = "booking_date_start", nullable = false)
@@ -35,4 +41,23 @@ public class Booking {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(nullable = false)
     private Item item;
+
+    /**
+     * Copy of the item owner id, so owner-side queries do not join {@code items}.
+     */
+    @Column(name = "owner_id", nullable = false)
+    private long ownerId;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+
+        return id != 0 && id == ((Booking) o).getId();
+    }
+
+    @Override
+    public int hashCode() {
+        return Hibernate.getClass(this).hashCode();
+    }
 }
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.model;
+
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fields shared by a live {@link Booking} and an {@link ArchivedBooking}, so both are read the same way.
+ */
+public interface BookingRecord {
+
+    long getId();
+
+    LocalDateTime getBookingDateStart();
+
+    LocalDateTime getBookingDateEnd();
+
+    BookingStatus getStatus();
+
+    User getUser();
+
+    Item getItem();
+
+    long getOwnerId();
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingStateCountDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.item.model.ItemBookingRef;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BookingArchiveRepository extends JpaRepository<ArchivedBooking, Long> {
+
+    @Query("SELECT b.bookingDateEnd FROM ArchivedBooking b " +
+            "WHERE b.user.id = ?1 AND b.item.id = ?2 AND b.status = ?3 AND b.bookingDateEnd < ?4")
+    List<LocalDateTime> findEndsByUserIdAndItemIdAndStatusAndBookingDateEndBefore(long userId, long itemId,
+                                                                                 BookingStatus status,
+                                                                                 LocalDateTime dateTime,
+                                                                                 Pageable pageable);
+
+    @Query("SELECT b FROM ArchivedBooking b JOIN FETCH b.user JOIN FETCH b.item WHERE b.id = ?1")
+    Optional<ArchivedBooking> findWithUserAndItemById(long bookingId);
+
+    @Query("SELECT new ru.practicum.shareit.item.model.ItemBookingRef(b.id, b.user.id, b.bookingDateStart) " +
+            "FROM ArchivedBooking b WHERE b.item.id = ?1 AND b.status <> ?2 ORDER BY b.bookingDateStart DESC")
+    List<ItemBookingRef> findBookingRefsOfItem(long itemId, BookingStatus excludedStatus, Pageable pageable);
+
+    @Query("SELECT MAX(b.bookingDateEnd) FROM ArchivedBooking b")
+    Optional<LocalDateTime> findMaxEnd();
+
+    /**
+     * Copies the bookings with the given ids from the hot table, keeping their ids.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO booking_archive (id, booking_date_start, booking_date_end, status, user_id, item_id, owner_id) " +
+            "SELECT id, booking_date_start, booking_date_end, status, user_id, item_id, owner_id " +
+            "FROM booking WHERE id IN (?1)",
+            nativeQuery = true)
+    int copyFromBooking(Collection<Long> bookingIds);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingStateCountDto(b.item.id, COUNT(b), " +
+            "SUM(CASE WHEN b.bookingDateStart < ?2 AND b.bookingDateEnd > ?2 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.bookingDateEnd < ?2 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.bookingDateStart > ?2 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.status = ru.practicum.shareit.booking.enums.BookingStatus.WAITING THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.status = ru.practicum.shareit.booking.enums.BookingStatus.REJECTED THEN 1 ELSE 0 END)) " +
+            "FROM ArchivedBooking b WHERE b.ownerId = ?1 GROUP BY b.item.id ORDER BY b.item.id")
+    List<BookingStateCountDto> countStatesPerItemOfOwner(long ownerId, LocalDateTime now);
+
+    @Query("SELECT b.id FROM ArchivedBooking b WHERE b.user.id = ?1 AND b.id > ?2 ORDER BY b.id")
+    List<Long> findIdsByBookerAfter(long bookerId, long afterId, Pageable pageable);
+
+    @Query("SELECT b.id FROM ArchivedBooking b WHERE b.ownerId = ?1 AND b.id > ?2 ORDER BY b.id")
+    List<Long> findIdsByOwnerAfter(long ownerId, long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedBooking b WHERE b.id IN ?1")
+    int deleteByIds(Collection<Long> bookingIds);
+}
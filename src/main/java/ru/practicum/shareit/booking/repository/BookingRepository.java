@@ -1,46 +1,106 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.dto.BookingStateCountDto;
+import ru.practicum.shareit.booking.dto.BookingStateDto;
+import ru.practicum.shareit.booking.dto.ItemBookingCountDto;
 import ru.practicum.shareit.booking.enums.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.ItemBookingRef;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingSearchRepository,
+        BookingUpdateRepository {
 
-    @EntityGraph(attributePaths = {"user", "item"})
-    List<Booking> findAllByUserIdOrderByBookingDateEndDesc(long userId);
+    /**
+     * Booking with its booker and item, everything {@code BookingDto} needs in one statement.
+     */
+    @Query("SELECT b FROM Booking b JOIN FETCH b.user JOIN FETCH b.item WHERE b.id = ?1")
+    Optional<Booking> findWithUserAndItemById(long bookingId);
 
-    @EntityGraph(attributePaths = {"user", "item"})
-    List<Booking> findAllByUserIdAndBookingDateEndBeforeOrderByBookingDateEndDesc(long userId, LocalDateTime currentDate);
+    @Query("SELECT b.bookingDateEnd FROM Booking b " +
+            "WHERE b.user.id = ?1 AND b.item.id = ?2 AND b.status = ?3 AND b.bookingDateEnd < ?4")
+    List<LocalDateTime> findEndsByUserIdAndItemIdAndStatusAndBookingDateEndBefore(long userId, long itemId,
+                                                                                 BookingStatus status,
+                                                                                 LocalDateTime dateTime,
+                                                                                 Pageable pageable);
 
-    @EntityGraph(attributePaths = {"user", "item"})
-    List<Booking> findAllByUserIdAndBookingDateStartBeforeAndBookingDateEndAfterOrderByBookingDateEndDesc(long userId, LocalDateTime start, LocalDateTime end);
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingIntervalDto(b.id, b.item.id, b.bookingDateStart, b.bookingDateEnd) " +
+            "FROM Booking b WHERE b.status IN ?1 AND b.bookingDateEnd > ?2")
+    List<BookingIntervalDto> findAllIntervalsByStatusInAndEndAfter(Collection<BookingStatus> statuses, LocalDateTime dateTime);
 
-    @EntityGraph(attributePaths = {"user", "item"})
-    List<Booking> findAllByUserIdAndStatusOrderByBookingDateEndDesc(long userId, BookingStatus status);
+    @Query("SELECT new ru.practicum.shareit.item.model.ItemBookingRef(b.id, b.user.id, b.bookingDateStart) " +
+            "FROM Booking b WHERE b.item.id = ?1 AND b.status <> ?2 AND b.bookingDateStart < ?3 " +
+            "ORDER BY b.bookingDateStart DESC")
+    List<ItemBookingRef> findBookingRefsStartedBefore(long itemId, BookingStatus excludedStatus,
+                                                      LocalDateTime dateTime, Pageable pageable);
 
-    @EntityGraph(attributePaths = {"user", "item"})
-    List<Booking> findAllByUserIdAndBookingDateStartAfterOrderByBookingDateEndDesc(long userId, LocalDateTime currentDate);
+    @Query("SELECT new ru.practicum.shareit.item.model.ItemBookingRef(b.id, b.user.id, b.bookingDateStart) " +
+            "FROM Booking b WHERE b.item.id = ?1 AND b.status <> ?2 AND b.bookingDateStart > ?3 " +
+            "ORDER BY b.bookingDateStart ASC")
+    List<ItemBookingRef> findBookingRefsStartingAfter(long itemId, BookingStatus excludedStatus,
+                                                      LocalDateTime dateTime, Pageable pageable);
 
-    @EntityGraph(attributePaths = {"user", "item"})
-    List<Booking> findAllByItemOwnerIdOrderByBookingDateEndDesc(long ownerId);
+    @Query("SELECT new ru.practicum.shareit.booking.dto.ItemBookingCountDto(b.item.id, COUNT(b)) " +
+            "FROM Booking b WHERE b.status <> ?1 GROUP BY b.item.id")
+    List<ItemBookingCountDto> countBookingsPerItem(BookingStatus excludedStatus);
 
-    @EntityGraph(attributePaths = {"user", "item"})
-    List<Booking> findAllByItemOwnerIdAndBookingDateEndBeforeOrderByBookingDateEndDesc(long ownerId, LocalDateTime currentDate);
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.item.id = ?1 AND b.status <> ?2")
+    long countBookingsOfItem(long itemId, BookingStatus excludedStatus);
 
-    @EntityGraph(attributePaths = {"user", "item"})
-    List<Booking> findAllByItemOwnerIdAndBookingDateStartBeforeAndBookingDateEndAfterOrderByBookingDateEndDesc(long ownerId, LocalDateTime start, LocalDateTime end);
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingIntervalDto(b.id, b.item.id, b.bookingDateStart, b.bookingDateEnd) " +
+            "FROM Booking b WHERE b.item.id = ?1 AND b.status <> ?2 AND b.bookingDateStart < ?4 AND b.bookingDateEnd > ?3 " +
+            "ORDER BY b.bookingDateStart")
+    List<BookingIntervalDto> findIntervalsOfItemOverlapping(long itemId, BookingStatus excludedStatus,
+                                                            LocalDateTime from, LocalDateTime to);
 
-    @EntityGraph(attributePaths = {"user", "item"})
-    List<Booking> findAllByItemOwnerIdAndStatusOrderByBookingDateEndDesc(long ownerId, BookingStatus status);
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingStateDto(" +
+            "b.id, b.item.id, b.user.id, b.ownerId, b.status, b.bookingDateStart, b.bookingDateEnd) " +
+            "FROM Booking b WHERE b.id = ?1")
+    Optional<BookingStateDto> findStateById(long bookingId);
 
-    @EntityGraph(attributePaths = {"user", "item"})
-    List<Booking> findAllByItemOwnerIdAndBookingDateStartAfterOrderByBookingDateEndDesc(long ownerId, LocalDateTime currentDate);
+    /**
+     * Sets the status only if it is still {@code expected}; returns 0 when another transaction got there first.
+     */
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = ?3 WHERE b.id = ?1 AND b.status = ?2")
+    int compareAndSetStatus(long bookingId, BookingStatus expected, BookingStatus status);
 
-    List<Booking> findAllByUserIdAndItemIdAndStatusAndBookingDateEndBefore(long userId, long itemId, BookingStatus status, LocalDateTime dateTime);
+    @Query("SELECT b.id FROM Booking b WHERE b.bookingDateEnd < ?1 AND b.id > ?2 ORDER BY b.id")
+    List<Long> findIdsEndedBefore(LocalDateTime dateTime, long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.id IN ?1")
+    int deleteByIds(Collection<Long> bookingIds);
+
+    /**
+     * Booking counts of the owner per item and search state at {@code now}, ordered by item id.
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingStateCountDto(b.item.id, COUNT(b), " +
+            "SUM(CASE WHEN b.bookingDateStart < ?2 AND b.bookingDateEnd > ?2 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.bookingDateEnd < ?2 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.bookingDateStart > ?2 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.status = ru.practicum.shareit.booking.enums.BookingStatus.WAITING THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.status = ru.practicum.shareit.booking.enums.BookingStatus.REJECTED THEN 1 ELSE 0 END)) " +
+            "FROM Booking b WHERE b.ownerId = ?1 GROUP BY b.item.id ORDER BY b.item.id")
+    List<BookingStateCountDto> countStatesPerItemOfOwner(long ownerId, LocalDateTime now);
+
+    @Query("SELECT DISTINCT b.item.id FROM Booking b WHERE b.user.id = ?1")
+    List<Long> findItemIdsBookedBy(long bookerId);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.user.id = ?1 AND b.id > ?2 ORDER BY b.id")
+    List<Long> findIdsByBookerAfter(long bookerId, long afterId, Pageable pageable);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.ownerId = ?1 AND b.id > ?2 ORDER BY b.id")
+    List<Long> findIdsByOwnerAfter(long ownerId, long afterId, Pageable pageable);
 }
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingSearchSide;
+import ru.practicum.shareit.booking.enums.BookingSearchState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingSearchRepository {
+
+    /**
+     * Bookings of the user on the given side, matching the state at {@code now}, ordered by
+     * (end DESC, id DESC) and starting strictly after {@code after}.
+     * Rows are projected straight into {@link BookingDto} without loading entities.
+     */
+    List<BookingDto> search(BookingSearchSide side, long userId, BookingSearchState state,
+                            LocalDateTime now, BookingCursor after, Pageable page);
+}
@@ -0,0 +1,168 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.archive.BookingArchiveWatermark;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.enums.BookingSearchSide;
+import ru.practicum.shareit.booking.enums.BookingSearchState;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class BookingSearchRepositoryImpl implements BookingSearchRepository {
+
+    private static final Comparator<BookingDto> BY_END_AND_ID_DESC = Comparator
+            .comparing(BookingDto::getEnd)
+            .thenComparing(BookingDto::getId)
+            .reversed();
+
+    private final BookingArchiveWatermark archiveWatermark;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Reads the hot table first. The archive only holds bookings that ended before the watermark,
+     * so it is queried just when the page is not filled by hot rows ending after the watermark.
+     */
+    @Override
+    public List<BookingDto> search(BookingSearchSide side, long userId, BookingSearchState state,
+                                   LocalDateTime now, BookingCursor after, Pageable page) {
+        List<BookingDto> hot = search(Booking.class, side, userId, state, now, after, page);
+        Optional<LocalDateTime> watermark = archiveWatermark.get();
+
+        if (watermark.isEmpty() || state == BookingSearchState.FUTURE || state == BookingSearchState.CURRENT) {
+            return hot;
+        }
+
+        if (page.isPaged() && hot.size() == page.getPageSize()
+                && hot.get(hot.size() - 1).getEnd().isAfter(watermark.get())) {
+            return hot;
+        }
+
+        Pageable top = page.isPaged() ? PageRequest.of(0, (int) page.getOffset() + page.getPageSize()) : page;
+        List<BookingDto> hotTop = page.isPaged() && page.getOffset() > 0
+                ? search(Booking.class, side, userId, state, now, after, top)
+                : hot;
+        List<BookingDto> coldTop = search(ArchivedBooking.class, side, userId, state, now, after, top);
+
+        return merge(hotTop, coldTop, page);
+    }
+
+    /**
+     * Merges two lists ordered by (end DESC, id DESC) and cuts the page out of the result.
+     * A booking moved while both lists were read shows up in both of them and is taken once.
+     */
+    private static List<BookingDto> merge(List<BookingDto> hot, List<BookingDto> cold, Pageable page) {
+        long skip = page.isPaged() ? page.getOffset() : 0;
+        int limit = page.isPaged() ? page.getPageSize() : Integer.MAX_VALUE;
+        List<BookingDto> result = new ArrayList<>(Math.min(limit, hot.size() + cold.size()));
+        int i = 0;
+        int j = 0;
+
+        while ((i < hot.size() || j < cold.size()) && result.size() < limit) {
+            BookingDto next;
+
+            if (j == cold.size()) {
+                next = hot.get(i++);
+            } else if (i == hot.size()) {
+                next = cold.get(j++);
+            } else {
+                int order = BY_END_AND_ID_DESC.compare(hot.get(i), cold.get(j));
+                next = order <= 0 ? hot.get(i++) : cold.get(j++);
+
+                if (order == 0) j++;
+            }
+
+            if (skip > 0) {
+                skip--;
+            } else {
+                result.add(next);
+            }
+        }
+
+        return result;
+    }
+
+    private <T> List<BookingDto> search(Class<T> entity, BookingSearchSide side, long userId,
+                                        BookingSearchState state, LocalDateTime now, BookingCursor after,
+                                        Pageable page) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingDto> query = cb.createQuery(BookingDto.class);
+        Root<T> booking = query.from(entity);
+        Join<T, User> booker = booking.join("user");
+        Join<T, Item> item = booking.join("item");
+        Path<LocalDateTime> start = booking.get("bookingDateStart");
+        Path<LocalDateTime> end = booking.get("bookingDateEnd");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(side == BookingSearchSide.OWNER
+                ? cb.equal(booking.get("ownerId"), userId)
+                : cb.equal(booking.get("user").get("id"), userId));
+
+        switch (state) {
+            case PAST:
+                predicates.add(cb.lessThan(end, now));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start, now));
+                break;
+            case CURRENT:
+                predicates.add(cb.lessThan(start, now));
+                predicates.add(cb.greaterThan(end, now));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.WAITING));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.REJECTED));
+                break;
+            default:
+                break;
+        }
+
+        predicates.add(cb.or(
+                cb.lessThan(end, after.getEnd()),
+                cb.and(cb.equal(end, after.getEnd()), cb.lessThan(id, after.getId()))
+        ));
+
+        query.select(cb.construct(
+                        BookingDto.class,
+                        id, start, end, booking.get("status"),
+                        booker.get("id"), booker.get("email"), booker.get("name"),
+                        item.get("id"), item.get("name"), item.get("description"), item.get("available")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(end), cb.desc(id));
+
+        TypedQuery<BookingDto> typedQuery = entityManager.createQuery(query);
+
+        if (page.isPaged()) {
+            typedQuery.setFirstResult((int) page.getOffset());
+            typedQuery.setMaxResults(page.getPageSize());
+        }
+
+        return typedQuery.getResultList();
+    }
+}
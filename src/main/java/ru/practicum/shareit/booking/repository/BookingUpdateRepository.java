@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingStateDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingUpdateRepository {
+
+    /**
+     * Moves the WAITING bookings among {@code bookingIds} whose item belongs to the owner to {@code status}
+     * in one conditional UPDATE and returns the rows it changed, with their status before the change.
+     */
+    List<BookingStateDto> updateWaitingStatusOfOwner(long ownerId, Collection<Long> bookingIds,
+                                                     BookingStatus status);
+}
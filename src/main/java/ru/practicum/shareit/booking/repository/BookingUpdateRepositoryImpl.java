@@ -0,0 +1,106 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import ru.practicum.shareit.booking.dto.BookingStateDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Set-based status changes: UPDATE ... RETURNING on PostgreSQL and a data change delta table on H2,
+ * so the changed rows come back from the same statement. Other databases lock the matching rows
+ * first and update them by id.
+ */
+@RequiredArgsConstructor
+public class BookingUpdateRepositoryImpl implements BookingUpdateRepository {
+
+    private static final String POSTGRESQL_UPDATE =
+            "UPDATE booking SET status = :status " +
+            "WHERE owner_id = :ownerId AND id IN (:ids) AND status = 'WAITING' " +
+            "RETURNING id, item_id, user_id, owner_id, booking_date_start, booking_date_end";
+
+    private static final String H2_UPDATE =
+            "SELECT id, item_id, user_id, owner_id, booking_date_start, booking_date_end FROM FINAL TABLE (" +
+            "UPDATE booking SET status = :status " +
+            "WHERE owner_id = :ownerId AND id IN (:ids) AND status = 'WAITING')";
+
+    private static final String PORTABLE_SELECT =
+            "SELECT new ru.practicum.shareit.booking.dto.BookingStateDto(" +
+            "b.id, b.item.id, b.user.id, b.ownerId, b.status, b.bookingDateStart, b.bookingDateEnd) FROM Booking b " +
+            "WHERE b.id IN :ids AND b.status = :waiting AND b.ownerId = :ownerId";
+
+    private static final String PORTABLE_UPDATE =
+            "UPDATE Booking b SET b.status = :status WHERE b.id IN :ids";
+
+    private final DatabaseDriver databaseDriver;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingStateDto> updateWaitingStatusOfOwner(long ownerId, Collection<Long> bookingIds,
+                                                            BookingStatus status) {
+        switch (databaseDriver) {
+            case POSTGRESQL:
+                return updateReturning(POSTGRESQL_UPDATE, ownerId, bookingIds, status);
+            case H2:
+                return updateReturning(H2_UPDATE, ownerId, bookingIds, status);
+            default:
+                return lockAndUpdate(ownerId, bookingIds, status);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<BookingStateDto> updateReturning(String sql, long ownerId, Collection<Long> bookingIds,
+                                                  BookingStatus status) {
+        List<Object[]> rows = entityManager.createNativeQuery(sql)
+                .setParameter("status", status.name())
+                .setParameter("ownerId", ownerId)
+                .setParameter("ids", bookingIds)
+                .getResultList();
+
+        return rows.stream()
+                .map(row -> new BookingStateDto(
+                        ((Number) row[0]).longValue(),
+                        ((Number) row[1]).longValue(),
+                        ((Number) row[2]).longValue(),
+                        ((Number) row[3]).longValue(),
+                        BookingStatus.WAITING,
+                        toLocalDateTime(row[4]),
+                        toLocalDateTime(row[5])
+                ))
+                .collect(Collectors.toList());
+    }
+
+    private List<BookingStateDto> lockAndUpdate(long ownerId, Collection<Long> bookingIds, BookingStatus status) {
+        List<BookingStateDto> changed = entityManager.createQuery(PORTABLE_SELECT, BookingStateDto.class)
+                .setParameter("ids", bookingIds)
+                .setParameter("waiting", BookingStatus.WAITING)
+                .setParameter("ownerId", ownerId)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+
+        if (changed.isEmpty()) return changed;
+
+        entityManager.createQuery(PORTABLE_UPDATE)
+                .setParameter("status", status)
+                .setParameter("ids", changed.stream().map(BookingStateDto::getBookingId).collect(Collectors.toList()))
+                .executeUpdate();
+
+        return changed;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp
+                ? ((Timestamp) value).toLocalDateTime()
+                : (LocalDateTime) value;
+    }
+}
@@ -2,39 +2,83 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStateCountDto;
+import ru.practicum.shareit.booking.dto.BookingStateDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.enums.BookingSearchSide;
 import ru.practicum.shareit.booking.enums.BookingSearchState;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRecord;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.OffsetPageRequest;
 import ru.practicum.shareit.exception.exceptionimp.BadRequestException;
+import ru.practicum.shareit.exception.exceptionimp.ConflictException;
 import ru.practicum.shareit.exception.exceptionimp.InternalServerException;
 import ru.practicum.shareit.exception.exceptionimp.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingTracker;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.concurrent.locks.Lock;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingService {
 
+    private static final int MAX_APPROVE_ATTEMPTS = 3;
+
     private final BookingRepository bookingRepository;
 
+    private final BookingArchiveRepository bookingArchiveRepository;
+
     private final UserRepository userRepository;
 
+    private final UserExistenceCache userExistenceCache;
+
     private final ItemRepository itemRepository;
 
-    private final ModelMapper modelMapper;
+    private final BookingIntervalIndex bookingIntervalIndex;
+
+    private final ItemBookingTracker itemBookingTracker;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Validator validator;
 
     @Transactional
     public BookingDto createBooking(long userId, CreateBookingDto dto) {
@@ -44,8 +88,11 @@ public class BookingService {
             throw new BadRequestException("Wrong date");
         }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User with id " + userId + " is not found"));
+        if (!userExistenceCache.exists(userId)) {
+            throw new NotFoundException("User with id " + userId + " is not found");
+        }
+
+        User user = userRepository.getReferenceById(userId);
         log.debug("User was found");
 
         Item item = itemRepository.findById(dto.getItemId())
@@ -54,7 +101,7 @@ public class BookingService {
                 );
         log.debug("Item was found");
 
-        if (item.getOwner().equals(user)) {
+        if (item.getOwner().getId() == userId) {
             throw new NotFoundException("Owner can't create booking for its own item");
         }
 
@@ -62,55 +109,205 @@ public class BookingService {
             throw new BadRequestException("Item is unavailable");
         }
 
+        Booking booking = BookingMapper.toBooking(dto, user, item);
+        Lock itemLock = bookingIntervalIndex.lockFor(item.getId());
+        itemLock.lock();
+
         try {
-            Booking booking = modelMapper.map(dto, Booking.class);
-            booking.setUser(user);
-            booking.setItem(item);
-            booking.setStatus(BookingStatus.WAITING);
+            if (bookingIntervalIndex.hasOverlap(item.getId(), dto.getStart(), dto.getEnd())) {
+                throw new BadRequestException("Item is already booked for these dates");
+            }
 
-            Booking savedBooking = bookingRepository.save(booking);
-            BookingDto bookingDto = modelMapper.map(savedBooking, BookingDto.class);
-            log.debug("Mapping from Booking to BookingDto: {}", bookingDto);
-            log.debug("Exiting createBooking method");
+            try {
+                Booking savedBooking = bookingRepository.save(booking);
+                itemBookingTracker.onBookingCreated(item, savedBooking);
+                eventPublisher.publishEvent(toChangedEvent(savedBooking, null));
+                bookingIntervalIndex.reserve(
+                        item.getId(),
+                        savedBooking.getId(),
+                        savedBooking.getBookingDateStart(),
+                        savedBooking.getBookingDateEnd()
+                );
+                BookingDto bookingDto = BookingMapper.toBookingDto(savedBooking);
+                log.debug("Mapping from Booking to BookingDto: {}", bookingDto);
+                log.debug("Exiting createBooking method");
 
-            return bookingDto;
-        } catch (Exception exc) {
-            log.error("An unexpected exception has occurred " + exc);
+                return bookingDto;
+            } catch (Exception exc) {
+                log.error("An unexpected exception has occurred " + exc);
 
-            throw new InternalServerException("Something went wrong");
+                throw new InternalServerException("Something went wrong");
+            }
+        } finally {
+            itemLock.unlock();
+        }
+    }
+
+    /**
+     * Creates the valid entries of the batch and reports every entry on its own.
+     * All checks run in memory before anything is written, so an invalid entry
+     * never rolls back the valid ones. Entries are validated and mapped before the
+     * item locks are taken; under the locks only the overlap check and the inserts run.
+     */
+    @Transactional
+    public List<BookingBatchResultDto> createBookings(long userId, List<CreateBookingDto> dtos) {
+        log.debug("Entering createBookings method: userId = {}, entries = {}", userId, dtos.size());
+
+        if (!userExistenceCache.exists(userId)) {
+            throw new NotFoundException("User with id " + userId + " is not found");
+        }
+
+        User user = userRepository.getReferenceById(userId);
+        log.debug("User was found");
+
+        Set<Long> itemIds = dtos.stream()
+                .filter(Objects::nonNull)
+                .map(CreateBookingDto::getItemId)
+                .collect(Collectors.toSet());
+        Map<Long, Item> itemsById = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        log.debug("{} of {} items were found", itemsById.size(), itemIds.size());
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[dtos.size()];
+        Map<Integer, Booking> pending = new LinkedHashMap<>();
+
+        for (int i = 0; i < dtos.size(); i++) {
+            CreateBookingDto dto = dtos.get(i);
+            BookingBatchResultDto rejection = checkBatchEntry(i, userId, dto, itemsById);
+
+            if (rejection != null) {
+                results[i] = rejection;
+            } else {
+                pending.put(i, BookingMapper.toBooking(dto, user, itemsById.get(dto.getItemId())));
+            }
+        }
+
+        List<Booking> savedBookings = new ArrayList<>();
+        List<Lock> itemLocks = bookingIntervalIndex.locksFor(itemsById.keySet());
+        itemLocks.forEach(Lock::lock);
+
+        try {
+            for (Map.Entry<Integer, Booking> entry : pending.entrySet()) {
+                int i = entry.getKey();
+                Booking booking = entry.getValue();
+                Item item = booking.getItem();
+
+                if (bookingIntervalIndex.hasOverlap(
+                        item.getId(), booking.getBookingDateStart(), booking.getBookingDateEnd())) {
+                    results[i] = rejected(i, HttpStatus.BAD_REQUEST, "Item is already booked for these dates");
+
+                    continue;
+                }
+
+                Booking savedBooking = bookingRepository.save(booking);
+                itemBookingTracker.onBookingCreated(item, savedBooking);
+                bookingIntervalIndex.reserve(
+                        item.getId(),
+                        savedBooking.getId(),
+                        savedBooking.getBookingDateStart(),
+                        savedBooking.getBookingDateEnd()
+                );
+                savedBookings.add(savedBooking);
+                results[i] = new BookingBatchResultDto(
+                        i, HttpStatus.CREATED.value(), BookingMapper.toBookingDto(savedBooking), null);
+            }
+        } finally {
+            for (int i = itemLocks.size() - 1; i >= 0; i--) {
+                itemLocks.get(i).unlock();
+            }
+        }
+
+        savedBookings.forEach(booking -> eventPublisher.publishEvent(toChangedEvent(booking, null)));
+        log.debug("Created {} of {} bookings", savedBookings.size(), dtos.size());
+        log.debug("Exiting createBookings method");
+
+        return Arrays.asList(results);
+    }
+
+    private BookingBatchResultDto checkBatchEntry(int index, long userId, CreateBookingDto dto,
+                                                  Map<Long, Item> itemsById) {
+        if (dto == null) return rejected(index, HttpStatus.BAD_REQUEST, "Booking is empty");
+
+        Set<ConstraintViolation<CreateBookingDto>> violations = validator.validate(dto);
+
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+
+            return rejected(index, HttpStatus.BAD_REQUEST, message);
         }
+
+        if (!dto.getEnd().isAfter(dto.getStart())) return rejected(index, HttpStatus.BAD_REQUEST, "Wrong date");
+
+        Item item = itemsById.get(dto.getItemId());
+
+        if (item == null) {
+            return rejected(index, HttpStatus.NOT_FOUND, "Item with id " + dto.getItemId() + " is not found");
+        }
+
+        if (item.getOwner().getId() == userId) {
+            return rejected(index, HttpStatus.NOT_FOUND, "Owner can't create booking for its own item");
+        }
+
+        if (!item.isAvailable()) return rejected(index, HttpStatus.BAD_REQUEST, "Item is unavailable");
+
+        return null;
     }
 
+    private static BookingBatchResultDto rejected(int index, HttpStatus status, String error) {
+        return new BookingBatchResultDto(index, status.value(), null, error);
+    }
+
+    /**
+     * Changes the status with a compare-and-set UPDATE against the status read just before.
+     * When a concurrent decision wins, the checks run again on the fresh status,
+     * at most {@value #MAX_APPROVE_ATTEMPTS} times.
+     */
     @Transactional
     public BookingDto approveBooking(long userId, long bookingId, boolean approved) {
-            log.debug("Entering approveBooking method: userId = {}, bookingId = {}, approved = {} ",
-                    userId, bookingId, approved);
+        log.debug("Entering approveBooking method: userId = {}, bookingId = {}, approved = {} ",
+                userId, bookingId, approved);
 
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() ->
-                            new NotFoundException("User with id " + userId + " is not found"));
-            log.debug("User was found");
+        if (!userExistenceCache.exists(userId)) {
+            throw new NotFoundException("User with id " + userId + " is not found");
+        }
 
-            Booking booking = bookingRepository.findById(bookingId)
+        log.debug("User was found");
+
+        BookingStatus status = approved
+                ? BookingStatus.APPROVED
+                : BookingStatus.REJECTED;
+        BookingStatus previousStatus = null;
+
+        for (int attempt = 1; previousStatus == null; attempt++) {
+            BookingStateDto state = bookingRepository.findStateById(bookingId)
                     .orElseThrow(() ->
                             new NotFoundException("Booking with id " + bookingId + " is not found"));
 
-            if (!booking.getItem().getOwner().equals(user)) {
+            if (state.getOwnerId() != userId) {
                 throw new NotFoundException("Not found");
             }
 
-            if (booking.getStatus().equals(BookingStatus.APPROVED)) {
+            if (state.getStatus().equals(BookingStatus.APPROVED)) {
                 throw new BadRequestException("Can not change status after post has been approved");
             }
 
-            BookingStatus status = approved
-                    ? BookingStatus.APPROVED
-                    : BookingStatus.REJECTED;
-            booking.setStatus(status);
+            if (transitStatus(state, status)) {
+                previousStatus = state.getStatus();
+            } else if (attempt == MAX_APPROVE_ATTEMPTS) {
+                throw new ConflictException("Booking with id " + bookingId + " is being changed concurrently");
+            } else {
+                log.debug("BookingStatus was changed concurrently, attempt {} of {}", attempt, MAX_APPROVE_ATTEMPTS);
+            }
+        }
 
         try {
-            Booking updatedBooking = bookingRepository.save(booking);
-            BookingDto bookingDto = modelMapper.map(updatedBooking, BookingDto.class);
+            Booking updatedBooking = bookingRepository.findWithUserAndItemById(bookingId).orElseThrow();
+            itemBookingTracker.onBookingStatusChanged(updatedBooking.getItem(), updatedBooking, previousStatus);
+            eventPublisher.publishEvent(toChangedEvent(updatedBooking, previousStatus));
+            BookingDto bookingDto = BookingMapper.toBookingDto(updatedBooking);
             log.debug("BookingStatus was changed to {}", status);
             log.debug("Mapping from Booking to BookingDto: {}", bookingDto);
             log.debug("Exiting approveBooking method");
@@ -123,25 +320,130 @@ public class BookingService {
         }
     }
 
+    /**
+     * Applies one decision to many bookings with a single conditional UPDATE.
+     * Only WAITING bookings of the owner's items change; the rest are reported as unchanged.
+     */
+    @Transactional
+    public BookingDecisionResultDto decideBookings(long ownerId, BookingDecisionDto dto) {
+        log.debug("Entering decideBookings method: ownerId = {}, BookingDecisionDto = {}", ownerId, dto);
+
+        if (!userExistenceCache.exists(ownerId)) {
+            throw new NotFoundException("User with id " + ownerId + " is not found");
+        }
+
+        BookingStatus status = dto.getApproved()
+                ? BookingStatus.APPROVED
+                : BookingStatus.REJECTED;
+        Set<Long> bookingIds = new LinkedHashSet<>(dto.getBookingIds());
+
+        try {
+            List<BookingStateDto> changed =
+                    bookingRepository.updateWaitingStatusOfOwner(ownerId, bookingIds, status);
+            Set<Long> changedIds = changed.stream()
+                    .map(BookingStateDto::getBookingId)
+                    .collect(Collectors.toSet());
+            log.debug("BookingStatus of {} bookings was changed to {}", changedIds.size(), status);
+
+            if (status == BookingStatus.REJECTED && !changed.isEmpty()) {
+                changed.forEach(booking -> bookingIntervalIndex.release(booking.getItemId(), booking.getBookingId()));
+
+                Set<Long> itemIds = changed.stream()
+                        .map(BookingStateDto::getItemId)
+                        .collect(Collectors.toSet());
+                itemRepository.findAllById(itemIds).stream()
+                        .sorted(Comparator.comparingLong(Item::getId))
+                        .forEach(item -> itemBookingTracker.onBookingsRejected(item, changedIds));
+            }
+
+            changed.forEach(booking -> eventPublisher.publishEvent(new BookingChangedEvent(
+                    booking.getBookingId(),
+                    booking.getItemId(),
+                    booking.getBookerId(),
+                    BookingStatus.WAITING,
+                    status,
+                    booking.getStart(),
+                    booking.getEnd()
+            )));
+
+            List<Long> unchangedIds = bookingIds.stream()
+                    .filter(id -> !changedIds.contains(id))
+                    .collect(Collectors.toList());
+            List<Long> changedInRequestOrder = bookingIds.stream()
+                    .filter(changedIds::contains)
+                    .collect(Collectors.toList());
+            log.debug("Exiting decideBookings method");
+
+            return new BookingDecisionResultDto(status, changedInRequestOrder, unchangedIds);
+        } catch (Exception exc) {
+            log.error("An unexpected exception has occurred " + exc);
+
+            throw new InternalServerException("Something went wrong");
+        }
+    }
+
+    /**
+     * Compare-and-set of the status that keeps the interval index in step with it.
+     * Restoring a rejected booking re-checks overlaps under the item lock before it writes.
+     */
+    private boolean transitStatus(BookingStateDto state, BookingStatus newStatus) {
+        long itemId = state.getItemId();
+
+        if (newStatus == BookingStatus.APPROVED && state.getStatus() == BookingStatus.REJECTED) {
+            Lock itemLock = bookingIntervalIndex.lockFor(itemId);
+            itemLock.lock();
+
+            try {
+                if (bookingIntervalIndex.hasOverlap(itemId, state.getStart(), state.getEnd())) {
+                    throw new BadRequestException("Item is already booked for these dates");
+                }
+
+                if (!compareAndSetStatus(state, newStatus)) return false;
+
+                bookingIntervalIndex.reserve(itemId, state.getBookingId(), state.getStart(), state.getEnd());
+
+                return true;
+            } finally {
+                itemLock.unlock();
+            }
+        }
+
+        if (!compareAndSetStatus(state, newStatus)) return false;
+
+        if (newStatus == BookingStatus.REJECTED && state.getStatus() != BookingStatus.REJECTED) {
+            bookingIntervalIndex.release(itemId, state.getBookingId());
+        }
+
+        return true;
+    }
+
+    private boolean compareAndSetStatus(BookingStateDto state, BookingStatus newStatus) {
+        return bookingRepository.compareAndSetStatus(state.getBookingId(), state.getStatus(), newStatus) == 1;
+    }
+
     @Transactional(readOnly = true)
     public BookingDto getBookingById(long userId, long bookingId) {
         log.debug("Entering getBookingById method: userId = {}, bookingId = {}", userId, bookingId);
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() ->
-                        new NotFoundException("User with id " + userId + " is not found"));
+        if (!userExistenceCache.exists(userId)) {
+            throw new NotFoundException("User with id " + userId + " is not found");
+        }
+
         log.debug("User was found");
 
-        Booking booking = bookingRepository.findById(bookingId)
+        BookingRecord booking = bookingRepository.findWithUserAndItemById(bookingId)
+                .<BookingRecord>map(Function.identity())
+                .or(() -> bookingArchiveRepository.findWithUserAndItemById(bookingId))
                 .orElseThrow(() ->
                         new NotFoundException("Booking with id " + bookingId + " is not found"));
+        log.debug("Booking was found");
 
-        if (!booking.getUser().equals(user) && !booking.getItem().getOwner().equals(user)) {
+        if (booking.getUser().getId() != userId && booking.getOwnerId() != userId) {
             throw new NotFoundException("Not found");
         }
 
         try {
-            BookingDto bookingDto = modelMapper.map(booking, BookingDto.class);
+            BookingDto bookingDto = BookingMapper.toBookingDto(booking);
             log.debug("Mapping from Booking to BookingDto: {}", bookingDto);
             log.debug("Exiting getBookingById method");
 
@@ -154,63 +456,72 @@ public class BookingService {
     }
 
     @Transactional(readOnly = true)
-    public List<BookingDto> getAllUserBooking(long userId, String state) {
-        log.debug("Entering getAllUserBooking method: userId = {}, BookingSearchState = {}",
-                userId, state);
+    public List<BookingDto> getAllUserBooking(long userId, String state, int from, Integer size, String cursor) {
+        log.debug("Entering getAllUserBooking method: userId = {}, BookingSearchState = {}, from = {}, size = {}, " +
+                        "cursor = {}", userId, state, from, size, cursor);
+
+        if (!userExistenceCache.exists(userId)) {
+            throw new NotFoundException("User with id " + userId + " is not found");
+        }
+
+        log.debug("User was found");
+
+        List<BookingDto> bookingDtos = searchBookings(BookingSearchSide.BOOKER, userId, state, from, size, cursor);
+        log.debug("Exiting getAllUserBooking method");
+
+        return bookingDtos;
+    }
+
+    @Transactional(readOnly = true)
+    public List<BookingDto> getAllOwnerBooking(long ownerId, String state, int from, Integer size, String cursor) {
+        log.debug("Entering getAllOwnerBooking method: ownerId = {}, BookingSearchState = {}, from = {}, size = {}, " +
+                        "cursor = {}", ownerId, state, from, size, cursor);
+
+        if (!userExistenceCache.exists(ownerId)) {
+            throw new NotFoundException("User with id " + ownerId + " is not found");
+        }
 
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User with id " + userId + " is not found"));
         log.debug("User was found");
 
+        List<BookingDto> bookingDtos = searchBookings(BookingSearchSide.OWNER, ownerId, state, from, size, cursor);
+        log.debug("Exiting getAllOwnerBooking method");
+
+        return bookingDtos;
+    }
+
+    /**
+     * Booking counts of the owner per search state, summed over the hot and the archive table,
+     * optionally broken down by item.
+     */
+    @Transactional(readOnly = true)
+    public BookingSummaryDto getOwnerBookingSummary(long ownerId, boolean byItem) {
+        log.debug("Entering getOwnerBookingSummary method: ownerId = {}, byItem = {}", ownerId, byItem);
+
+        if (!userExistenceCache.exists(ownerId)) {
+            throw new NotFoundException("User with id " + ownerId + " is not found");
+        }
+
         try {
-            BookingSearchState searchState = BookingSearchState.valueOf(state);
-            List<Booking> bookings;
-
-            switch (searchState) {
-                case PAST:
-                    bookings = bookingRepository
-                        .findAllByUserIdAndBookingDateEndBeforeOrderByBookingDateEndDesc(
-                                userId, LocalDateTime.now()
-                        );
-                    break;
-                case FUTURE:
-                    bookings = bookingRepository
-                        .findAllByUserIdAndBookingDateStartAfterOrderByBookingDateEndDesc(
-                                userId, LocalDateTime.now()
-                        );
-                    break;
-                case CURRENT:
-                    bookings = bookingRepository
-                        .findAllByUserIdAndBookingDateStartBeforeAndBookingDateEndAfterOrderByBookingDateEndDesc(
-                                userId, LocalDateTime.now(), LocalDateTime.now()
-                        );
-                    break;
-                case WAITING:
-                    bookings = bookingRepository
-                        .findAllByUserIdAndStatusOrderByBookingDateEndDesc(
-                                userId, BookingStatus.WAITING
-                        );
-                    break;
-                case REJECTED:
-                    bookings = bookingRepository
-                        .findAllByUserIdAndStatusOrderByBookingDateEndDesc(
-                                userId, BookingStatus.REJECTED
-                        );
-                    break;
-                default:
-                    bookings = bookingRepository.findAllByUserIdOrderByBookingDateEndDesc(userId);
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, BookingStateCountDto> countsByItem = new TreeMap<>();
+            BookingStateCountDto total = new BookingStateCountDto();
+
+            for (List<BookingStateCountDto> counts : List.of(
+                    bookingRepository.countStatesPerItemOfOwner(ownerId, now),
+                    bookingArchiveRepository.countStatesPerItemOfOwner(ownerId, now))) {
+                for (BookingStateCountDto itemCounts : counts) {
+                    total.add(itemCounts);
+                    countsByItem.merge(itemCounts.getItemId(), itemCounts, (left, right) -> {
+                        left.add(right);
+
+                        return left;
+                    });
+                }
             }
 
-            List<BookingDto> bookingDtos = modelMapper
-                    .map(bookings, new TypeToken<List<BookingDto>>() {}.getType());
-            log.debug("Mapping from List<Booking> to List<BookingDto>: {}", bookingDtos);
-            log.debug("Exiting getAllUserBooking method");
-
-            return bookingDtos;
-        } catch (IllegalArgumentException exc) {
-            log.warn("Error has occurred {}", exc.getMessage());
+            log.debug("Exiting getOwnerBookingSummary method: {}", total);
 
-            throw new BadRequestException("Unknown state: " + state);
+            return new BookingSummaryDto(total, byItem ? new ArrayList<>(countsByItem.values()) : null);
         } catch (Exception exc) {
             log.error("An unexpected exception has occurred " + exc);
 
@@ -218,58 +529,16 @@ public class BookingService {
         }
     }
 
-    @Transactional(readOnly = true)
-    public List<BookingDto> getAllOwnerBooking(long ownerId, String state) {
-        log.debug("Entering getAllOwnerBooking method: ownerId = {}, BookingSearchState = {}",
-                ownerId, state);
-
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> new NotFoundException("User with id " + ownerId + " is not found"));
-        log.debug("User was found");
+    private List<BookingDto> searchBookings(BookingSearchSide side, long userId, String state,
+                                            int from, Integer size, String cursor) {
+        BookingCursor after = decodeCursor(cursor);
+        Pageable page = toPageable(from, size);
 
         try {
             BookingSearchState searchState = BookingSearchState.valueOf(state);
-            List<Booking> bookings;
-
-            switch (searchState) {
-                case PAST:
-                    bookings = bookingRepository
-                            .findAllByItemOwnerIdAndBookingDateEndBeforeOrderByBookingDateEndDesc(
-                                    ownerId, LocalDateTime.now()
-                            );
-                    break;
-                case FUTURE:
-                    bookings = bookingRepository
-                            .findAllByItemOwnerIdAndBookingDateStartAfterOrderByBookingDateEndDesc(
-                                    ownerId, LocalDateTime.now()
-                            );
-                    break;
-                case CURRENT:
-                    bookings = bookingRepository
-                            .findAllByItemOwnerIdAndBookingDateStartBeforeAndBookingDateEndAfterOrderByBookingDateEndDesc(
-                                    ownerId, LocalDateTime.now(), LocalDateTime.now()
-                            );
-                    break;
-                case WAITING:
-                    bookings = bookingRepository
-                            .findAllByItemOwnerIdAndStatusOrderByBookingDateEndDesc(
-                                    ownerId, BookingStatus.WAITING
-                            );
-                    break;
-                case REJECTED:
-                    bookings = bookingRepository
-                            .findAllByItemOwnerIdAndStatusOrderByBookingDateEndDesc(
-                                    ownerId, BookingStatus.REJECTED
-                            );
-                    break;
-                default:
-                    bookings = bookingRepository.findAllByItemOwnerIdOrderByBookingDateEndDesc(ownerId);
-            }
-
-            List<BookingDto> bookingDtos = modelMapper
-                    .map(bookings, new TypeToken<List<BookingDto>>() {}.getType());
-            log.debug("Mapping from List<Booking> to List<BookingDto>: {}", bookingDtos);
-            log.debug("Exiting getAllOwnerBooking method");
+            List<BookingDto> bookingDtos = bookingRepository.search(
+                    side, userId, searchState, LocalDateTime.now(), after, page);
+            log.debug("Found {} bookings: {}", bookingDtos.size(), bookingDtos);
 
             return bookingDtos;
         } catch (IllegalArgumentException exc) {
@@ -282,4 +551,32 @@ public class BookingService {
             throw new InternalServerException("Something went wrong");
         }
     }
+
+    private BookingCursor decodeCursor(String cursor) {
+        try {
+            return BookingCursor.decode(cursor);
+        } catch (IllegalArgumentException exc) {
+            log.warn("Error has occurred {}", exc.getMessage());
+
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private Pageable toPageable(int from, Integer size) {
+        return size == null
+                ? Pageable.unpaged()
+                : OffsetPageRequest.of(from, size);
+    }
+
+    private static BookingChangedEvent toChangedEvent(Booking booking, BookingStatus previousStatus) {
+        return new BookingChangedEvent(
+                booking.getId(),
+                booking.getItem().getId(),
+                booking.getUser().getId(),
+                previousStatus,
+                booking.getStatus(),
+                booking.getBookingDateStart(),
+                booking.getBookingDateEnd()
+        );
+    }
 }
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bounded set of (booker, item) pairs with an APPROVED booking, mapped to the earliest known end
+ * of such a booking. The pair may comment once that end has passed, so completed bookings need no
+ * database check. Approval is final, so entries only go away with the user or item or by eviction;
+ * a miss falls back to the booking tables. Metrics are published with tag {@code cache=comment-eligibility}.
+ */
+@Slf4j
+@Component
+public class CommentEligibilityCache {
+
+    private final Cache<Pair, LocalDateTime> cache;
+
+    public CommentEligibilityCache(
+            @Value("${shareit.cache.comment-eligibility.max-size:100000}") long maxSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "comment-eligibility");
+    }
+
+    public boolean isEligible(long bookerId, long itemId, LocalDateTime now) {
+        LocalDateTime end = cache.getIfPresent(new Pair(bookerId, itemId));
+
+        return end != null && end.isBefore(now);
+    }
+
+    /**
+     * Remembers that an APPROVED booking of the pair ends at {@code end}; keeps the earliest end.
+     */
+    public void recordApproved(long bookerId, long itemId, LocalDateTime end) {
+        cache.asMap().merge(new Pair(bookerId, itemId), end, (current, added) -> added.isBefore(current)
+                ? added
+                : current);
+    }
+
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (event.getStatus() != BookingStatus.APPROVED) return;
+
+        log.debug("Recording approved booking for comments: {}", event);
+        recordApproved(event.getBookerId(), event.getItemId(), event.getEnd());
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        cache.asMap().keySet().removeIf(pair -> pair.bookerId == event.getUserId()
+                || event.getOwnedItemIds().contains(pair.itemId));
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Pair {
+
+        private final long bookerId;
+
+        private final long itemId;
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Upcoming booked intervals per item, from which the free slots of any later window are computed.
+ * An entry is dropped once a booking or availability change of that item commits. A miss is loaded
+ * under the entry lock, so an invalidation that races with it waits and removes the result.
+ */
+@Slf4j
+@Component
+public class ItemAvailabilityCache {
+
+    private final Cache<Long, ItemBookedIntervals> cache;
+
+    public ItemAvailabilityCache(
+            @Value("${shareit.cache.availability.max-intervals:50000}") long maxIntervals,
+            @Value("${shareit.cache.availability.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxIntervals)
+                .weigher((Long itemId, ItemBookedIntervals intervals) -> intervals.getByStart().size() + 1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "item-availability");
+    }
+
+    public ItemBookedIntervals get(long itemId, Supplier<ItemBookedIntervals> loader) {
+        return cache.get(itemId, key -> loader.get());
+    }
+
+    public void invalidate(long itemId) {
+        log.debug("Invalidating cached availability: itemId = {}", itemId);
+        cache.invalidate(itemId);
+    }
+
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        invalidate(event.getItemId());
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        invalidate(event.getItemId());
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        event.getOwnedItemIds().forEach(this::invalidate);
+        event.getBookedItemIds().forEach(this::invalidate);
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Non-rejected bookings of an item that end after {@code since}, sorted by start.
+ * Answers any window that starts at {@code since} or later.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ItemBookedIntervals {
+
+    private final LocalDateTime since;
+
+    private final boolean available;
+
+    private final List<BookingIntervalDto> byStart;
+
+    public boolean covers(LocalDateTime from) {
+        return !from.isBefore(since);
+    }
+
+    /**
+     * Intervals intersecting [from, to), still sorted by start.
+     */
+    public List<BookingIntervalDto> overlapping(LocalDateTime from, LocalDateTime to) {
+        List<BookingIntervalDto> result = new ArrayList<>();
+
+        for (BookingIntervalDto interval : byStart) {
+            if (!interval.getStart().isBefore(to)) break;
+
+            if (interval.getEnd().isAfter(from)) result.add(interval);
+        }
+
+        return result;
+    }
+}
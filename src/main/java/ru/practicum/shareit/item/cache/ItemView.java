@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.item.dto.ItemDtoWithBooking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Assembled item as seen by its owner and by everybody else.
+ * {@code validUntil} is the start of the next booking, after which the owner view is outdated.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ItemView {
+
+    private final long ownerId;
+
+    private final ItemDtoWithBooking ownerDto;
+
+    private final ItemDtoWithBooking publicDto;
+
+    private final LocalDateTime validUntil;
+
+    public ItemDtoWithBooking forUser(long userId) {
+        return userId == ownerId ? ownerDto : publicDto;
+    }
+}
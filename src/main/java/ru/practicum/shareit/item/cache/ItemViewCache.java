@@ -0,0 +1,105 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.item.event.CommentCreatedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded read-through cache of assembled items for GET /items/{itemId}.
+ * Entries are dropped after the change that outdates them commits, and expire
+ * on their own when the next booking starts. Hit, miss and eviction counts are
+ * published as the {@code cache.*} metrics with tag {@code cache=items}.
+ */
+@Slf4j
+@Component
+public class ItemViewCache {
+
+    private final Cache<Long, ItemView> cache;
+
+    public ItemViewCache(
+            @Value("${shareit.cache.items.max-size:10000}") long maxSize,
+            @Value("${shareit.cache.items.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ValidUntilExpiry(ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "items");
+    }
+
+    public ItemView get(long itemId, LongFunction<ItemView> loader) {
+        return cache.get(itemId, loader::apply);
+    }
+
+    public void invalidate(long itemId) {
+        log.debug("Invalidating cached item: itemId = {}", itemId);
+        cache.invalidate(itemId);
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        invalidate(event.getItemId());
+    }
+
+    @TransactionalEventListener
+    public void onCommentCreated(CommentCreatedEvent event) {
+        invalidate(event.getItemId());
+    }
+
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        invalidate(event.getItemId());
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        event.getOwnedItemIds().forEach(this::invalidate);
+        event.getBookedItemIds().forEach(this::invalidate);
+    }
+
+    private static final class ValidUntilExpiry implements Expiry<Long, ItemView> {
+
+        private final long ttlNanos;
+
+        private ValidUntilExpiry(Duration ttl) {
+            this.ttlNanos = ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Long itemId, ItemView view, long currentTime) {
+            LocalDateTime now = LocalDateTime.now();
+
+            if (view.getValidUntil() == null || view.getValidUntil().isAfter(now.plusNanos(ttlNanos))) return ttlNanos;
+
+            if (!view.getValidUntil().isAfter(now)) return 0;
+
+            return Duration.between(now, view.getValidUntil()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long itemId, ItemView view, long currentTime, long currentDuration) {
+            return expireAfterCreate(itemId, view, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long itemId, ItemView view, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,15 +1,20 @@
 package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.index.ItemSuggestTrie;
 import ru.practicum.shareit.item.service.ItemService;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Positive;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -64,12 +69,41 @@ public class ItemController {
         return itemService.getOwnersItems(userId);
     }
 
+    @GetMapping(
+            value = "/{itemId}/availability",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public List<FreeIntervalDto> getAvailability(
+            @PathVariable @Positive long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        return itemService.getAvailability(itemId, from, to);
+    }
+
     @GetMapping(
             value = "/search",
             produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.OK)
-    public List<ItemDto> getAvailableItemsBySearchString(@RequestParam String text) {
-        return itemService.getAvailableItemsBySearchString(text);
+    public List<ItemDto> getAvailableItemsBySearchString(
+            @RequestParam String text,
+            @RequestParam(defaultValue = "EXACT") String mode,
+            @RequestParam(defaultValue = "100") @Positive @Max(1000) int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        return itemService.getAvailableItemsBySearchString(text, mode, limit, from, to);
+    }
+
+    @GetMapping(
+            value = "/suggest",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public List<ItemSuggestionDto> getSuggestions(
+            @RequestParam @NotBlank String prefix,
+            @RequestParam(defaultValue = "10") @Positive @Max(ItemSuggestTrie.MAX_SUGGESTIONS) int limit
+    ) {
+        return itemService.getSuggestions(prefix, limit);
     }
 
     @PostMapping(
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemSuggestionDto {
+
+    private long id;
+
+    private String name;
+
+    private long bookings;
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.enums;
+
+public enum ItemSearchMode {
+
+    EXACT,
+
+    FUZZY
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Published by {@code ItemService} after a comment was added to an item.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class CommentCreatedEvent {
+
+    private final long commentId;
+
+    private final long itemId;
+}
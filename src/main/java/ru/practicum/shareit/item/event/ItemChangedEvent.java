@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Published by {@code ItemService} after an item was created or updated.
+ * Carries the saved state so listeners don't have to reload the item.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class ItemChangedEvent {
+
+    private final long itemId;
+
+    private final String name;
+
+    private final String description;
+
+    private final boolean available;
+}
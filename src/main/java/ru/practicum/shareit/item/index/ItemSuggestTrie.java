@@ -0,0 +1,371 @@
+package ru.practicum.shareit.item.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.ItemBookingCountDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.dto.ItemTextDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Radix trie over the lower-cased names of available items.
+ * Every node keeps the {@value #MAX_SUGGESTIONS} most booked items of its subtree,
+ * so a lookup only walks the prefix and copies that list.
+ * Changes recompute the lists along the path of the affected name only.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSuggestTrie {
+
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private static final Comparator<Entry> BY_POPULARITY = Comparator
+            .comparingLong(Entry::getBookings)
+            .reversed()
+            .thenComparingLong(Entry::getItemId);
+
+    private final ItemRepository itemRepository;
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, Entry> entriesByItem = new HashMap<>();
+
+    private final Map<Long, Long> bookingsByItem = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Node root = new Node("");
+
+    @PostConstruct
+    public void rebuild() {
+        log.debug("Entering rebuild method");
+
+        List<ItemTextDto> items = itemRepository.findAllAvailableTexts();
+        List<ItemBookingCountDto> counts = bookingRepository.countBookingsPerItem(BookingStatus.REJECTED);
+
+        lock.writeLock().lock();
+
+        try {
+            entriesByItem.clear();
+            bookingsByItem.clear();
+            counts.forEach(count -> bookingsByItem.put(count.getItemId(), count.getCount()));
+            root = new Node("");
+
+            for (ItemTextDto item : items) {
+                Entry entry = toEntry(item.getId(), item.getName());
+                entriesByItem.put(entry.getItemId(), entry);
+                insert(entry);
+            }
+
+            recomputeSubtree(root);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.debug("Exiting rebuild method: {} names indexed", items.size());
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        log.debug("Updating suggestions for item: {}", event);
+
+        lock.writeLock().lock();
+
+        try {
+            Entry previous = entriesByItem.remove(event.getItemId());
+
+            if (previous != null) recomputePath(remove(previous));
+
+            if (event.isAvailable()) {
+                Entry entry = toEntry(event.getItemId(), event.getName());
+                entriesByItem.put(entry.getItemId(), entry);
+                recomputePath(insert(entry));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        long delta = weight(event.getStatus()) - weight(event.getPreviousStatus());
+
+        if (delta == 0) return;
+
+        lock.writeLock().lock();
+
+        try {
+            bookingsByItem.merge(event.getItemId(), delta, Long::sum);
+            Entry previous = entriesByItem.get(event.getItemId());
+
+            if (previous == null) return;
+
+            Entry entry = toEntry(previous.getItemId(), previous.getName());
+            entriesByItem.put(entry.getItemId(), entry);
+            recomputePath(pathTo(entry.getKey()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the items of the deleted user and reloads the booking counts of the items they had booked.
+     */
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        log.debug("Updating suggestions for deleted user: {}", event);
+
+        Map<Long, Long> counts = new HashMap<>();
+        event.getBookedItemIds().forEach(itemId ->
+                counts.put(itemId, bookingRepository.countBookingsOfItem(itemId, BookingStatus.REJECTED)));
+
+        lock.writeLock().lock();
+
+        try {
+            for (long itemId : event.getOwnedItemIds()) {
+                bookingsByItem.remove(itemId);
+                Entry previous = entriesByItem.remove(itemId);
+
+                if (previous != null) recomputePath(remove(previous));
+            }
+
+            counts.forEach((itemId, count) -> {
+                bookingsByItem.put(itemId, count);
+                Entry previous = entriesByItem.get(itemId);
+
+                if (previous == null) return;
+
+                Entry entry = toEntry(previous.getItemId(), previous.getName());
+                entriesByItem.put(entry.getItemId(), entry);
+                recomputePath(pathTo(entry.getKey()));
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * At most {@code limit} available items whose name starts with the prefix, most booked first.
+     */
+    public List<ItemSuggestionDto> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+
+        lock.readLock().lock();
+
+        try {
+            Node node = find(key);
+
+            if (node == null) return List.of();
+
+            int size = Math.min(limit, node.top.length);
+            List<ItemSuggestionDto> result = new ArrayList<>(size);
+
+            for (int i = 0; i < size; i++) {
+                Entry entry = node.top[i];
+                result.add(new ItemSuggestionDto(entry.getItemId(), entry.getName(), entry.getBookings()));
+            }
+
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Entry toEntry(long itemId, String name) {
+        return new Entry(itemId, name, normalize(name), bookingsByItem.getOrDefault(itemId, 0L));
+    }
+
+    private List<Node> insert(Entry entry) {
+        String key = entry.getKey();
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int position = 0;
+
+        while (position < key.length()) {
+            Node child = node.children.get(key.charAt(position));
+
+            if (child == null) {
+                child = new Node(key.substring(position));
+                node.children.put(key.charAt(position), child);
+                position = key.length();
+            } else {
+                int common = commonPrefix(child.label, key, position);
+
+                if (common < child.label.length()) {
+                    Node middle = new Node(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    middle.children.put(child.label.charAt(0), child);
+                    middle.top = child.top;
+                    node.children.put(middle.label.charAt(0), middle);
+                    child = middle;
+                }
+
+                position += common;
+            }
+
+            node = child;
+            path.add(node);
+        }
+
+        node.items.add(entry.getItemId());
+
+        return path;
+    }
+
+    private List<Node> remove(Entry entry) {
+        List<Node> path = pathTo(entry.getKey());
+        path.get(path.size() - 1).items.remove(entry.getItemId());
+
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+
+            if (!node.items.isEmpty()) continue;
+
+            if (node.children.isEmpty()) {
+                path.get(i - 1).children.remove(node.label.charAt(0));
+            } else if (node.children.size() == 1) {
+                Node child = node.children.firstEntry().getValue();
+                node.label = node.label + child.label;
+                node.children = child.children;
+                node.items = child.items;
+                node.top = child.top;
+            }
+        }
+
+        return path;
+    }
+
+    private List<Node> pathTo(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int position = 0;
+
+        while (position < key.length()) {
+            node = node.children.get(key.charAt(position));
+            path.add(node);
+            position += node.label.length();
+        }
+
+        return path;
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        int position = 0;
+
+        while (position < prefix.length()) {
+            Node child = node.children.get(prefix.charAt(position));
+
+            if (child == null) return null;
+
+            int common = commonPrefix(child.label, prefix, position);
+
+            if (position + common == prefix.length()) return child;
+
+            if (common < child.label.length()) return null;
+
+            node = child;
+            position += common;
+        }
+
+        return node;
+    }
+
+    private void recomputePath(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            recompute(path.get(i));
+        }
+    }
+
+    private void recomputeSubtree(Node node) {
+        node.children.values().forEach(this::recomputeSubtree);
+        recompute(node);
+    }
+
+    private void recompute(Node node) {
+        List<Entry> candidates = new ArrayList<>();
+
+        for (int i = 0; i < node.items.size(); i++) {
+            candidates.add(entriesByItem.get(node.items.get(i)));
+        }
+
+        for (Node child : node.children.values()) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+
+        candidates.sort(BY_POPULARITY);
+        node.top = candidates.subList(0, Math.min(MAX_SUGGESTIONS, candidates.size())).toArray(NO_ENTRIES);
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int length = 0;
+
+        while (length < label.length()
+                && offset + length < key.length()
+                && label.charAt(length) == key.charAt(offset + length)) {
+            length++;
+        }
+
+        return length;
+    }
+
+    private static long weight(BookingStatus status) {
+        return status == null || status == BookingStatus.REJECTED ? 0 : 1;
+    }
+
+    private static String normalize(String text) {
+        return text.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Node {
+
+        private String label;
+
+        private TreeMap<Character, Node> children = new TreeMap<>();
+
+        private LongPostingList items = new LongPostingList();
+
+        private Entry[] top = NO_ENTRIES;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+
+    @Value
+    private static class Entry {
+
+        long itemId;
+
+        String name;
+
+        String key;
+
+        long bookings;
+    }
+}
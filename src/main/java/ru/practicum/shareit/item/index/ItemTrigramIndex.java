@@ -0,0 +1,241 @@
+package ru.practicum.shareit.item.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemTextDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.LongPredicate;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram inverted index over the name and description of available items.
+ * A match is scored by the share of query trigrams the item contains, ties are broken
+ * by the Jaccard similarity of both trigram sets.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemTrigramIndex {
+
+    private static final double MIN_SIMILARITY = 0.3;
+
+    private static final Comparator<Match> BY_SIMILARITY = Comparator
+            .comparingDouble(Match::getSimilarity)
+            .thenComparingDouble(Match::getJaccard)
+            .thenComparing(Match::getItemId, Comparator.reverseOrder());
+
+    private final ItemRepository itemRepository;
+
+    private final Map<Long, LongPostingList> postings = new HashMap<>();
+
+    private final Map<Long, long[]> trigramsByItem = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void rebuild() {
+        log.debug("Entering rebuild method");
+
+        List<ItemTextDto> items = itemRepository.findAllAvailableTexts();
+
+        lock.writeLock().lock();
+
+        try {
+            postings.clear();
+            trigramsByItem.clear();
+            items.forEach(item -> put(item.getId(), item.getName(), item.getDescription()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.debug("Exiting rebuild method: {} items indexed", items.size());
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        log.debug("Reindexing item: {}", event);
+
+        lock.writeLock().lock();
+
+        try {
+            remove(event.getItemId());
+
+            if (event.isAvailable()) put(event.getItemId(), event.getName(), event.getDescription());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        log.debug("Removing items of deleted user: {}", event);
+
+        lock.writeLock().lock();
+
+        try {
+            event.getOwnedItemIds().forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of at most {@code limit} available items most similar to the text, best match first.
+     */
+    public List<Long> search(String text, int limit) {
+        return search(text, limit, itemId -> true);
+    }
+
+    /**
+     * Like {@link #search(String, int)}, but skips items rejected by the filter. The filter only runs
+     * for matches good enough to enter the current top {@code limit}.
+     */
+    public List<Long> search(String text, int limit, LongPredicate filter) {
+        long[] queryTrigrams = trigrams(text);
+
+        if (queryTrigrams.length == 0) return List.of();
+
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, BY_SIMILARITY);
+
+        lock.readLock().lock();
+
+        try {
+            List<LongPostingList> lists = new ArrayList<>(queryTrigrams.length);
+
+            for (long trigram : queryTrigrams) {
+                LongPostingList list = postings.get(trigram);
+
+                if (list != null) lists.add(list);
+            }
+
+            int[] cursors = new int[lists.size()];
+
+            while (true) {
+                long itemId = Long.MAX_VALUE;
+
+                for (int i = 0; i < cursors.length; i++) {
+                    if (cursors[i] < lists.get(i).size()) itemId = Math.min(itemId, lists.get(i).get(cursors[i]));
+                }
+
+                if (itemId == Long.MAX_VALUE) break;
+
+                int shared = 0;
+
+                for (int i = 0; i < cursors.length; i++) {
+                    if (cursors[i] < lists.get(i).size() && lists.get(i).get(cursors[i]) == itemId) {
+                        shared++;
+                        cursors[i]++;
+                    }
+                }
+
+                double similarity = (double) shared / queryTrigrams.length;
+
+                if (similarity < MIN_SIMILARITY) continue;
+
+                int itemTrigrams = trigramsByItem.get(itemId).length;
+                double jaccard = (double) shared / (queryTrigrams.length + itemTrigrams - shared);
+                Match match = new Match(itemId, similarity, jaccard);
+
+                if (best.size() == limit && BY_SIMILARITY.compare(match, best.peek()) <= 0) continue;
+
+                if (!filter.test(itemId)) continue;
+
+                best.add(match);
+
+                if (best.size() > limit) best.poll();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> result = new ArrayList<>(best.size());
+
+        while (!best.isEmpty()) {
+            result.add(0, best.poll().getItemId());
+        }
+
+        return result;
+    }
+
+    private void put(long itemId, String name, String description) {
+        long[] itemTrigrams = trigrams(name + " " + description);
+        trigramsByItem.put(itemId, itemTrigrams);
+
+        for (long trigram : itemTrigrams) {
+            postings.computeIfAbsent(trigram, key -> new LongPostingList()).add(itemId);
+        }
+    }
+
+    private void remove(long itemId) {
+        long[] itemTrigrams = trigramsByItem.remove(itemId);
+
+        if (itemTrigrams == null) return;
+
+        for (long trigram : itemTrigrams) {
+            LongPostingList list = postings.get(trigram);
+            list.remove(itemId);
+
+            if (list.isEmpty()) postings.remove(trigram);
+        }
+    }
+
+    /**
+     * Sorted distinct trigrams of the lower-cased words, each word padded like pg_trgm does.
+     * Three UTF-16 chars are packed into one long.
+     */
+    static long[] trigrams(String text) {
+        String[] words = text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+");
+        long[] result = new long[text.length() + 8];
+        int count = 0;
+
+        for (String word : words) {
+            if (word.isEmpty()) continue;
+
+            String padded = "  " + word + " ";
+
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                if (count == result.length) result = Arrays.copyOf(result, count * 2);
+
+                result[count++] = ((long) padded.charAt(i) << 32)
+                        | ((long) padded.charAt(i + 1) << 16)
+                        | padded.charAt(i + 2);
+            }
+        }
+
+        long[] sorted = Arrays.copyOf(result, count);
+        Arrays.sort(sorted);
+        int distinct = 0;
+
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) sorted[distinct++] = sorted[i];
+        }
+
+        return Arrays.copyOf(sorted, distinct);
+    }
+
+    @Value
+    private static class Match {
+
+        long itemId;
+
+        double similarity;
+
+        double jaccard;
+    }
+}
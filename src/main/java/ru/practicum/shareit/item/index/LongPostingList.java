@@ -0,0 +1,51 @@
+package ru.practicum.shareit.item.index;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of item ids backed by a primitive array.
+ * Not thread-safe: callers guard it with their own lock.
+ */
+final class LongPostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+
+    private int size;
+
+    void add(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+
+        if (position >= 0) return;
+
+        int insertAt = -position - 1;
+
+        if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+
+        if (position < 0) return;
+
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long get(int index) {
+        return ids[index];
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item.mapper;
+
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.model.Comment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class CommentMapper {
+
+    private CommentMapper() {
+    }
+
+    public static CommentDto toCommentDto(Comment comment) {
+        CommentDto dto = new CommentDto();
+        dto.setId(comment.getId());
+        dto.setText(comment.getText());
+        dto.setAuthorName(comment.getUser() != null ? comment.getUser().getName() : null);
+        dto.setCreated(comment.getCreated());
+
+        return dto;
+    }
+
+    public static List<CommentDto> toCommentDtos(List<Comment> comments) {
+        if (comments == null) return null;
+
+        List<CommentDto> dtos = new ArrayList<>(comments.size());
+
+        for (Comment comment : comments) {
+            dtos.add(toCommentDto(comment));
+        }
+
+        return dtos;
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item.mapper;
+
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoWithBooking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingRef;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ItemMapper {
+
+    private ItemMapper() {
+    }
+
+    public static ItemDto toItemDto(Item item) {
+        ItemDto dto = new ItemDto();
+        dto.setId(item.getId());
+        dto.setName(item.getName());
+        dto.setDescription(item.getDescription());
+        dto.setAvailable(item.isAvailable());
+
+        return dto;
+    }
+
+    public static List<ItemDto> toItemDtos(List<Item> items) {
+        List<ItemDto> dtos = new ArrayList<>(items.size());
+
+        for (Item item : items) {
+            dtos.add(toItemDto(item));
+        }
+
+        return dtos;
+    }
+
+    public static ItemDtoWithBooking toItemDtoWithBooking(Item item) {
+        ItemDtoWithBooking dto = new ItemDtoWithBooking();
+        dto.setId(item.getId());
+        dto.setName(item.getName());
+        dto.setDescription(item.getDescription());
+        dto.setAvailable(item.isAvailable());
+        dto.setLastBooking(toShortBookingDto(item.getLastBooking()));
+        dto.setNextBooking(toShortBookingDto(item.getNextBooking()));
+        dto.setComments(CommentMapper.toCommentDtos(item.getComments()));
+
+        return dto;
+    }
+
+    public static List<ItemDtoWithBooking> toItemDtosWithBooking(List<Item> items) {
+        List<ItemDtoWithBooking> dtos = new ArrayList<>(items.size());
+
+        for (Item item : items) {
+            dtos.add(toItemDtoWithBooking(item));
+        }
+
+        return dtos;
+    }
+
+    private static ShortBookingDto toShortBookingDto(ItemBookingRef ref) {
+        if (ref == null) return null;
+
+        ShortBookingDto dto = new ShortBookingDto();
+        dto.setId(ref.getBookingId());
+        dto.setBookerId(ref.getBookerId());
+
+        return dto;
+    }
+}
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.item.model;
 
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
-import ru.practicum.shareit.booking.model.Booking;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.DynamicUpdate;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
@@ -10,12 +13,16 @@ import java.util.List;
 
 @Entity
 @Table(name = "items")
-@Data
+@DynamicUpdate
+@Getter
+@Setter
+@ToString(exclude = {"owner", "comments"})
 @NoArgsConstructor
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private long id;
 
     @Column(nullable = false)
@@ -31,9 +38,39 @@ public class Item {
     @JoinColumn(name = "user_id", nullable = false)
     private User owner;
 
-    @OneToMany(mappedBy = "item", cascade = CascadeType.ALL)
-    private List<Booking> bookings;
+    /**
+     * Both booking references are written only by {@link ru.practicum.shareit.item.service.ItemBookingTracker}
+     * through targeted updates, never by the dirty check, so a stale copy of the item cannot overwrite them.
+     */
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "bookingId", column = @Column(name = "last_booking_id", updatable = false)),
+            @AttributeOverride(name = "bookerId", column = @Column(name = "last_booker_id", updatable = false)),
+            @AttributeOverride(name = "start", column = @Column(name = "last_booking_start", updatable = false))
+    })
+    private ItemBookingRef lastBooking;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "bookingId", column = @Column(name = "next_booking_id", updatable = false)),
+            @AttributeOverride(name = "bookerId", column = @Column(name = "next_booker_id", updatable = false)),
+            @AttributeOverride(name = "start", column = @Column(name = "next_booking_start", updatable = false))
+    })
+    private ItemBookingRef nextBooking;
 
     @OneToMany(mappedBy = "item", cascade = CascadeType.ALL)
     private List<Comment> comments;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+
+        return id != 0 && id == ((Item) o).getId();
+    }
+
+    @Override
+    public int hashCode() {
+        return Hibernate.getClass(this).hashCode();
+    }
 }
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Embeddable;
+import java.time.LocalDateTime;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBookingRef {
+
+    private long bookingId;
+
+    private long bookerId;
+
+    private LocalDateTime start;
+}
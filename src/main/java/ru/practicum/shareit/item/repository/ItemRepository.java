@@ -1,22 +1,85 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemTextDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemSearchRepository {
 
-    @Query("SELECT DISTINCT i FROM Item i LEFT JOIN FETCH i.bookings b LEFT JOIN i.comments c WHERE i.owner.id = ?1")
-    List<Item> findAllByOwnerIdWithBookings(long userId);
-
-    @Query("SELECT DISTINCT i FROM Item i LEFT JOIN FETCH i.comments c LEFT JOIN i.bookings b WHERE i.owner.id = ?1")
+    @Query("SELECT DISTINCT i FROM Item i LEFT JOIN FETCH i.comments c WHERE i.owner.id = ?1")
     List<Item> findAllByOwnerIdWithComments(long userId);
 
-    @Query(value = "SELECT * FROM items WHERE available = true AND (name ILIKE %:keyword% OR description ILIKE %:keyword%)", nativeQuery = true)
-    List<Item> findByAvailableAndKeyword(@Param("keyword") String keyword);
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemTextDto(i.id, i.name, i.description) " +
+            "FROM Item i WHERE i.available = true")
+    List<ItemTextDto> findAllAvailableTexts();
+
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = ?1")
+    List<Long> findIdsByOwnerId(long ownerId);
+
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = ?1 AND i.id > ?2 ORDER BY i.id")
+    List<Long> findIdsByOwnerIdAfter(long ownerId, long afterId, Pageable pageable);
+
+    @Query("SELECT i FROM Item i WHERE i.lastBooking.bookerId = ?1 OR i.nextBooking.bookerId = ?1 ORDER BY i.id")
+    List<Item> findAllReferencingBooker(long bookerId);
+
+    /**
+     * Locks the item row until the end of the transaction, so its booking references can be recomputed
+     * without a concurrent booking write slipping in between the read and the update.
+     */
+    @Query(value = "SELECT id FROM items WHERE id = ?1 FOR UPDATE", nativeQuery = true)
+    Long lockById(long itemId);
+
+    @Modifying
+    @Query("UPDATE Item i SET i.nextBooking.bookingId = ?2, i.nextBooking.bookerId = ?3, i.nextBooking.start = ?4 " +
+            "WHERE i.id = ?1 AND (i.nextBooking.start IS NULL OR i.nextBooking.start > ?4)")
+    int updateNextBookingIfEarlier(long itemId, long bookingId, long bookerId, LocalDateTime start);
+
+    @Modifying
+    @Query("UPDATE Item i SET " +
+            "i.lastBooking.bookingId = :lastId, i.lastBooking.bookerId = :lastBookerId, " +
+            "i.lastBooking.start = :lastStart, " +
+            "i.nextBooking.bookingId = :nextId, i.nextBooking.bookerId = :nextBookerId, " +
+            "i.nextBooking.start = :nextStart " +
+            "WHERE i.id = :itemId")
+    void updateBookingRefs(@Param("itemId") long itemId,
+                           @Param("lastId") Long lastId,
+                           @Param("lastBookerId") Long lastBookerId,
+                           @Param("lastStart") LocalDateTime lastStart,
+                           @Param("nextId") Long nextId,
+                           @Param("nextBookerId") Long nextBookerId,
+                           @Param("nextStart") LocalDateTime nextStart);
+
+    /**
+     * Replaces the references only while the row still points at the stale next booking.
+     */
+    @Modifying
+    @Query("UPDATE Item i SET " +
+            "i.lastBooking.bookingId = :lastId, i.lastBooking.bookerId = :lastBookerId, " +
+            "i.lastBooking.start = :lastStart, " +
+            "i.nextBooking.bookingId = :nextId, i.nextBooking.bookerId = :nextBookerId, " +
+            "i.nextBooking.start = :nextStart " +
+            "WHERE i.id = :itemId AND i.nextBooking.bookingId = :staleNextId AND i.nextBooking.start = :staleNextStart")
+    int rollForwardBookingRefs(@Param("itemId") long itemId,
+                               @Param("staleNextId") long staleNextId,
+                               @Param("staleNextStart") LocalDateTime staleNextStart,
+                               @Param("lastId") Long lastId,
+                               @Param("lastBookerId") Long lastBookerId,
+                               @Param("lastStart") LocalDateTime lastStart,
+                               @Param("nextId") Long nextId,
+                               @Param("nextBookerId") Long nextBookerId,
+                               @Param("nextStart") LocalDateTime nextStart);
+
+    @Modifying
+    @Query("DELETE FROM Item i WHERE i.id IN ?1")
+    int deleteByIds(Collection<Long> itemIds);
 }
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.repository;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearchRepository {
+
+    /**
+     * Available items whose name or description contain every word of the text,
+     * most relevant first. The order is stable, so consecutive offsets page through all matches.
+     */
+    List<Item> searchAvailable(String text, int offset, int limit);
+
+    /**
+     * Ids of at most {@code limit} matches of {@link #searchAvailable}, in the same order.
+     */
+    List<Long> searchAvailableIds(String text, int limit);
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text item search: a GIN-indexed tsvector column on PostgreSQL. H2 matches the same word
+ * prefixes with a regular expression scan, so tests see the production behaviour.
+ * Other databases fall back to the substring scan.
+ */
+@RequiredArgsConstructor
+public class ItemSearchRepositoryImpl implements ItemSearchRepository {
+
+    private static final String POSTGRESQL_SEARCH =
+            "SELECT %s FROM items i, to_tsquery('simple', :query) q " +
+            "WHERE i.available = true AND i.search_vector @@ q " +
+            "ORDER BY ts_rank(i.search_vector, q) DESC, i.id " +
+            "LIMIT :limit OFFSET :offset";
+
+    private static final String H2_SEARCH = "SELECT %s FROM items i WHERE i.available = TRUE";
+
+    private static final String H2_WORD_PREFIX =
+            " AND REGEXP_LIKE(LOWER(i.name || ' ' || i.description), :word%d)";
+
+    private static final String H2_ORDER = " ORDER BY i.id LIMIT :limit OFFSET :offset";
+
+    private static final String WORD_START = "(^|[^\\p{L}\\p{N}])";
+
+    private static final String PORTABLE_SEARCH =
+            "SELECT %s FROM Item i WHERE i.available = true " +
+            "AND (LOWER(i.name) LIKE :pattern OR LOWER(i.description) LIKE :pattern) " +
+            "ORDER BY i.id";
+
+    private final DatabaseDriver databaseDriver;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> searchAvailable(String text, int offset, int limit) {
+        List<String> words = words(text);
+
+        if (words.isEmpty()) return Collections.emptyList();
+
+        switch (databaseDriver) {
+            case POSTGRESQL:
+            case H2:
+                return nativeSearch(words, "i.*", Item.class, offset, limit).getResultList();
+            default:
+                return portableSearch(text, "i", Item.class, offset, limit).getResultList();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> searchAvailableIds(String text, int limit) {
+        List<String> words = words(text);
+
+        if (words.isEmpty()) return Collections.emptyList();
+
+        switch (databaseDriver) {
+            case POSTGRESQL:
+            case H2:
+                return ((List<Number>) nativeSearch(words, "i.id", null, 0, limit).getResultList()).stream()
+                        .map(Number::longValue)
+                        .collect(Collectors.toList());
+            default:
+                return portableSearch(text, "i.id", Long.class, 0, limit).getResultList();
+        }
+    }
+
+    private Query nativeSearch(List<String> words, String columns, Class<?> resultClass, int offset, int limit) {
+        Query query;
+
+        if (databaseDriver == DatabaseDriver.POSTGRESQL) {
+            query = createNativeQuery(String.format(POSTGRESQL_SEARCH, columns), resultClass)
+                    .setParameter("query", words.stream()
+                            .map(word -> word + ":*")
+                            .collect(Collectors.joining(" & ")));
+        } else {
+            StringBuilder sql = new StringBuilder(String.format(H2_SEARCH, columns));
+
+            for (int i = 0; i < words.size(); i++) {
+                sql.append(String.format(H2_WORD_PREFIX, i));
+            }
+
+            query = createNativeQuery(sql.append(H2_ORDER).toString(), resultClass);
+
+            for (int i = 0; i < words.size(); i++) {
+                query.setParameter("word" + i, WORD_START + words.get(i));
+            }
+        }
+
+        return query.setParameter("limit", limit).setParameter("offset", offset);
+    }
+
+    private <T> TypedQuery<T> portableSearch(String text, String select, Class<T> resultClass, int offset, int limit) {
+        return entityManager.createQuery(String.format(PORTABLE_SEARCH, select), resultClass)
+                .setParameter("pattern", "%" + text.toLowerCase(Locale.ROOT) + "%")
+                .setFirstResult(offset)
+                .setMaxResults(limit);
+    }
+
+    private Query createNativeQuery(String sql, Class<?> resultClass) {
+        return resultClass == null
+                ? entityManager.createNativeQuery(sql)
+                : entityManager.createNativeQuery(sql, resultClass);
+    }
+
+    private static List<String> words(String text) {
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,171 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.archive.BookingArchiveWatermark;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingRef;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Keeps the denormalized last/next booking references of items up to date.
+ * Writes adjust the references inside the booking transaction; reads only
+ * recompute them once the stored next booking has started. The columns are
+ * written with targeted updates, a recompute on the write path first locks the item row.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemBookingTracker {
+
+    private static final Pageable FIRST = PageRequest.of(0, 1);
+
+    private final BookingRepository bookingRepository;
+
+    private final BookingArchiveRepository bookingArchiveRepository;
+
+    private final BookingArchiveWatermark archiveWatermark;
+
+    private final ItemRepository itemRepository;
+
+    public void onBookingCreated(Item item, Booking booking) {
+        if (booking.getStatus() == BookingStatus.REJECTED
+                || !booking.getBookingDateStart().isAfter(LocalDateTime.now())) return;
+
+        int updated = itemRepository.updateNextBookingIfEarlier(
+                item.getId(), booking.getId(), booking.getUser().getId(), booking.getBookingDateStart());
+
+        if (updated > 0) {
+            item.setNextBooking(toRef(booking));
+            log.debug("Next booking of item {} is now {}", item.getId(), booking.getId());
+        }
+    }
+
+    public void onBookingStatusChanged(Item item, Booking booking, BookingStatus previousStatus) {
+        boolean referencedBookingRejected = booking.getStatus() == BookingStatus.REJECTED
+                && previousStatus != BookingStatus.REJECTED
+                && (isRef(item.getLastBooking(), booking) || isRef(item.getNextBooking(), booking));
+        boolean rejectedBookingRestored = previousStatus == BookingStatus.REJECTED
+                && booking.getStatus() != BookingStatus.REJECTED;
+
+        if (referencedBookingRejected || rejectedBookingRestored) recompute(item, LocalDateTime.now());
+    }
+
+    /**
+     * Recomputes the references when they point at one of the bookings rejected in bulk.
+     */
+    public void onBookingsRejected(Item item, Collection<Long> bookingIds) {
+        if (isRefAny(item.getLastBooking(), bookingIds) || isRefAny(item.getNextBooking(), bookingIds)) {
+            recompute(item, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Recomputes the references of the items whose last or next booking was made by a user
+     * whose bookings were just deleted in bulk.
+     */
+    public void onBookerDeleted(long bookerId) {
+        LocalDateTime now = LocalDateTime.now();
+
+        itemRepository.findAllReferencingBooker(bookerId).forEach(item -> recompute(item, now));
+    }
+
+    /**
+     * Rolls the references forward when the stored next booking has already started. Runs in the caller's
+     * transaction without locking: the update only applies while the row still holds the stale next booking,
+     * so concurrent readers computing the same values leave it to whichever writes first.
+     */
+    public void ensureCurrent(Item item) {
+        ItemBookingRef staleNext = item.getNextBooking();
+        LocalDateTime now = LocalDateTime.now();
+
+        if (staleNext == null || staleNext.getStart().isAfter(now)) return;
+
+        refresh(item, now);
+        ItemBookingRef last = item.getLastBooking();
+        ItemBookingRef next = item.getNextBooking();
+        int updated = itemRepository.rollForwardBookingRefs(
+                item.getId(),
+                staleNext.getBookingId(),
+                staleNext.getStart(),
+                last == null ? null : last.getBookingId(),
+                last == null ? null : last.getBookerId(),
+                last == null ? null : last.getStart(),
+                next == null ? null : next.getBookingId(),
+                next == null ? null : next.getBookerId(),
+                next == null ? null : next.getStart()
+        );
+        log.debug("Booking references of item {} were rolled forward: {}", item.getId(), updated > 0);
+    }
+
+    private void recompute(Item item, LocalDateTime now) {
+        itemRepository.lockById(item.getId());
+        refresh(item, now);
+        ItemBookingRef last = item.getLastBooking();
+        ItemBookingRef next = item.getNextBooking();
+        itemRepository.updateBookingRefs(
+                item.getId(),
+                last == null ? null : last.getBookingId(),
+                last == null ? null : last.getBookerId(),
+                last == null ? null : last.getStart(),
+                next == null ? null : next.getBookingId(),
+                next == null ? null : next.getBookerId(),
+                next == null ? null : next.getStart()
+        );
+    }
+
+    private void refresh(Item item, LocalDateTime now) {
+        item.setLastBooking(findLastBooking(item.getId(), now));
+        item.setNextBooking(bookingRepository
+                .findBookingRefsStartingAfter(item.getId(), BookingStatus.REJECTED, now, FIRST)
+                .stream()
+                .findFirst()
+                .orElse(null));
+    }
+
+    /**
+     * The latest started booking of the item. Archived bookings ended before the archive watermark,
+     * so the archive is only read when no booking in the hot table started after it.
+     */
+    private ItemBookingRef findLastBooking(long itemId, LocalDateTime now) {
+        ItemBookingRef hot = bookingRepository
+                .findBookingRefsStartedBefore(itemId, BookingStatus.REJECTED, now, FIRST)
+                .stream()
+                .findFirst()
+                .orElse(null);
+        Optional<LocalDateTime> watermark = archiveWatermark.get();
+
+        if (watermark.isEmpty() || hot != null && !hot.getStart().isBefore(watermark.get())) return hot;
+
+        ItemBookingRef archived = bookingArchiveRepository
+                .findBookingRefsOfItem(itemId, BookingStatus.REJECTED, FIRST)
+                .stream()
+                .findFirst()
+                .orElse(null);
+
+        return archived == null || hot != null && hot.getStart().isAfter(archived.getStart()) ? hot : archived;
+    }
+
+    private static ItemBookingRef toRef(Booking booking) {
+        return new ItemBookingRef(booking.getId(), booking.getUser().getId(), booking.getBookingDateStart());
+    }
+
+    private static boolean isRefAny(ItemBookingRef ref, Collection<Long> bookingIds) {
+        return ref != null && bookingIds.contains(ref.getBookingId());
+    }
+
+    private static boolean isRef(ItemBookingRef ref, Booking booking) {
+        return ref != null && ref.getBookingId() == booking.getId();
+    }
+}
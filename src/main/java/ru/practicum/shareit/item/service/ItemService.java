@@ -3,48 +3,102 @@ package ru.practicum.shareit.item.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.index.BookingIntervalIndex;
 import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.exceptionimp.BadRequestException;
 import ru.practicum.shareit.exception.exceptionimp.ForbiddenException;
 import ru.practicum.shareit.exception.exceptionimp.InternalServerException;
 import ru.practicum.shareit.exception.exceptionimp.NotFoundException;
+import ru.practicum.shareit.item.cache.CommentEligibilityCache;
+import ru.practicum.shareit.item.cache.ItemAvailabilityCache;
+import ru.practicum.shareit.item.cache.ItemBookedIntervals;
+import ru.practicum.shareit.item.cache.ItemView;
+import ru.practicum.shareit.item.cache.ItemViewCache;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.enums.ItemSearchMode;
+import ru.practicum.shareit.item.event.CommentCreatedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.index.ItemSuggestTrie;
+import ru.practicum.shareit.item.index.ItemTrigramIndex;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ItemService {
 
+    private static final Pageable FIRST = PageRequest.of(0, 1);
+
+    private static final int MAX_WINDOW_CANDIDATES = 10_000;
+
+    private static final LocalDateTime FAR_FUTURE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final ItemRepository itemRepository;
 
     private final CommentRepository commentRepository;
 
     private final UserRepository userRepository;
 
+    private final UserExistenceCache userExistenceCache;
+
     private final BookingRepository bookingRepository;
 
+    private final BookingArchiveRepository bookingArchiveRepository;
+
+    private final ItemBookingTracker itemBookingTracker;
+
+    private final ItemTrigramIndex itemTrigramIndex;
+
+    private final ItemSuggestTrie itemSuggestTrie;
+
+    private final BookingIntervalIndex bookingIntervalIndex;
+
+    private final ItemViewCache itemViewCache;
+
+    private final ItemAvailabilityCache itemAvailabilityCache;
+
+    private final CommentEligibilityCache commentEligibilityCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
     private final ModelMapper modelMapper;
 
     @Transactional
     public ItemDto createItem(long userId, CreateItemDto dto) {
         log.debug("Entering createItem method: userId = {}, CreateItemDto = {}", userId, dto);
 
-        User owner = userRepository.findById(userId).orElseThrow(
-                () -> new NotFoundException("User with id" + userId + "is not found"));
+        if (!userExistenceCache.exists(userId)) {
+            throw new NotFoundException("User with id" + userId + "is not found");
+        }
+
+        User owner = userRepository.getReferenceById(userId);
         log.debug("User was found");
 
         try {
@@ -53,7 +107,8 @@ public class ItemService {
             log.debug("Mapping from CreateItemDto to Item entity {}", itemEntity);
 
             Item savedItem = itemRepository.save(itemEntity);
-            ItemDto itemDtoResult = modelMapper.map(savedItem, ItemDto.class);
+            eventPublisher.publishEvent(toChangedEvent(savedItem));
+            ItemDto itemDtoResult = ItemMapper.toItemDto(savedItem);
             log.debug("Mapping from Item entity to ItemDto {}", itemDtoResult);
             log.debug("Exiting createItem method");
 
@@ -69,8 +124,10 @@ public class ItemService {
     public ItemDto updateItem(UpdateItemDto dto) {
         log.debug("Entering updateItem method: UpdateItemDto = {}", dto);
 
-        userRepository.findById(dto.getUserId()).orElseThrow(
-                () -> new NotFoundException("User with id" + dto.getUserId() + "is not found"));
+        if (!userExistenceCache.exists(dto.getUserId())) {
+            throw new NotFoundException("User with id" + dto.getUserId() + "is not found");
+        }
+
         log.debug("User was found");
 
         Item itemEntityForUpdate = itemRepository.findById(dto.getItemId())
@@ -97,7 +154,8 @@ public class ItemService {
             itemEntityForUpdate.setAvailable(newAvailable);
 
             Item savedItem = itemRepository.save(itemEntityForUpdate);
-            ItemDto itemDtoResult = modelMapper.map(savedItem, ItemDto.class);
+            eventPublisher.publishEvent(toChangedEvent(savedItem));
+            ItemDto itemDtoResult = ItemMapper.toItemDto(savedItem);
             log.debug("Mapping from Item entity to ItemDto {}", itemDtoResult);
             log.debug("Exiting updateItem method");
 
@@ -109,44 +167,31 @@ public class ItemService {
         }
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Not read-only: a stale booking reference of the item is rolled forward in this transaction.
+     */
+    @Transactional
     public ItemDtoWithBooking getOneItemById(long userId, long itemId) {
         log.debug("Entering getOneItemById method: userId = {}, itemId = {}", userId, itemId);
 
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(
-                        () -> new NotFoundException("Item with id " + itemId + " is not found"));
-        log.debug("Item was found");
-
-        try {
-            ItemDtoWithBooking itemDto = modelMapper.map(item, ItemDtoWithBooking.class);
-            log.debug("Mapping from Item to ItemDtoWithBooking: {}", itemDto);
-
-            if (item.getOwner().getId() != userId) {
-                itemDto.setLastBooking(null);
-                itemDto.setNextBooking(null);
-            }
-
-            log.debug("Exiting getOneItemById method");
+        ItemDtoWithBooking itemDto = itemViewCache.get(itemId, this::loadItemView).forUser(userId);
+        log.debug("Exiting getOneItemById method");
 
-            return itemDto;
-        } catch (Exception exc) {
-            log.error("An unexpected exception has occurred " + exc);
-
-            throw new InternalServerException("Something went wrong");
-        }
+        return itemDto;
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Not read-only: stale booking references of the items are rolled forward in this transaction.
+     */
+    @Transactional
     public List<ItemDtoWithBooking> getOwnersItems(long userId) {
         try {
             log.debug("Entering getOwnersItems method: userId = {}", userId);
 
             List<Item> items = itemRepository.findAllByOwnerIdWithComments(userId);
-            itemRepository.findAllByOwnerIdWithBookings(userId);
+            items.forEach(itemBookingTracker::ensureCurrent);
 
-            List<ItemDtoWithBooking> resultDtos = modelMapper
-                            .map(items, new TypeToken<List<ItemDtoWithBooking>>() {}.getType());
+            List<ItemDtoWithBooking> resultDtos = ItemMapper.toItemDtosWithBooking(items);
             log.debug("Mapping from List<Item> to List<ItemDtoWithBooking> {}", resultDtos);
             log.debug("Exiting getOwnersItems method");
 
@@ -158,21 +203,86 @@ public class ItemService {
         }
     }
 
+    /**
+     * Available items matching the text. With a window, only items free for all of it are returned:
+     * matches are checked against the booking interval index in memory, among the first
+     * {@value #MAX_WINDOW_CANDIDATES} text matches.
+     */
     @Transactional(readOnly = true)
-    public List<ItemDto> getAvailableItemsBySearchString(String searchString) {
+    public List<ItemDto> getAvailableItemsBySearchString(String searchString, String mode, int limit,
+                                                         LocalDateTime from, LocalDateTime to) {
+        log.debug("Entering getAvailableItemsBySearchString method: searchString = {}, mode = {}, limit = {}, " +
+                        "from = {}, to = {}", searchString, mode, limit, from, to);
+
+        boolean windowed = from != null || to != null;
+
+        if (windowed && (from == null || to == null || !from.isBefore(to))) {
+            throw new BadRequestException("Wrong date");
+        }
+
         try {
-            log.debug("Entering getAvailableItemsBySearchString method: searchString = {}",
-                    searchString);
+            ItemSearchMode searchMode = ItemSearchMode.valueOf(mode);
 
             if (searchString.isBlank()) return Collections.emptyList();
 
-            List<Item> items = itemRepository.findByAvailableAndKeyword(searchString);
-            List<ItemDto> resultDtos =
-                    modelMapper.map(items, new TypeToken<List<ItemDto>>() {}.getType());
+            LongPredicate isFree = itemId -> !windowed || !bookingIntervalIndex.hasOverlap(itemId, from, to);
+            List<Item> items;
+
+            if (searchMode == ItemSearchMode.FUZZY) {
+                items = findAllByIdsInOrder(itemTrigramIndex.search(searchString, limit, isFree));
+            } else if (windowed) {
+                items = searchFree(searchString, limit, isFree);
+            } else {
+                items = itemRepository.searchAvailable(searchString, 0, limit);
+            }
+
+            List<ItemDto> resultDtos = ItemMapper.toItemDtos(items);
             log.debug("Mapping from List<Item> to List<ItemDto> {}", resultDtos);
             log.debug("Exiting getAvailableItemsBySearchString method");
 
             return resultDtos;
+        } catch (IllegalArgumentException exc) {
+            log.warn("Error has occurred {}", exc.getMessage());
+
+            throw new BadRequestException("Unknown mode: " + mode);
+        } catch (Exception exc) {
+            log.error("An unexpected exception has occurred " + exc);
+
+            throw new InternalServerException("Something went wrong");
+        }
+    }
+
+    /**
+     * Free intervals of the item within [from, to): the gaps between its non-rejected bookings.
+     * An unavailable item has none. Windows starting before the cached intervals are read from the database.
+     */
+    @Transactional(readOnly = true)
+    public List<FreeIntervalDto> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        log.debug("Entering getAvailability method: itemId = {}, from = {}, to = {}", itemId, from, to);
+
+        if (!from.isBefore(to)) throw new BadRequestException("Wrong date");
+
+        ItemBookedIntervals booked = itemAvailabilityCache.get(
+                itemId, () -> loadBookedIntervals(itemId, LocalDateTime.now(), FAR_FUTURE));
+
+        if (!booked.covers(from)) booked = loadBookedIntervals(itemId, from, to);
+
+        List<FreeIntervalDto> freeIntervals = booked.isAvailable()
+                ? sweepFreeIntervals(booked.overlapping(from, to), from, to)
+                : Collections.emptyList();
+        log.debug("Exiting getAvailability method");
+
+        return freeIntervals;
+    }
+
+    public List<ItemSuggestionDto> getSuggestions(String prefix, int limit) {
+        log.debug("Entering getSuggestions method: prefix = {}, limit = {}", prefix, limit);
+
+        try {
+            List<ItemSuggestionDto> suggestions = itemSuggestTrie.suggest(prefix, limit);
+            log.debug("Exiting getSuggestions method");
+
+            return suggestions;
         } catch (Exception exc) {
             log.error("An unexpected exception has occurred " + exc);
 
@@ -195,15 +305,14 @@ public class ItemService {
                         () -> new NotFoundException("Item with id " + itemId + " is not found"));
         log.debug("Item was found");
 
-        bookingRepository.findAllByUserIdAndItemIdAndStatusAndBookingDateEndBefore(
-                        userId,
-                        itemId,
-                        BookingStatus.APPROVED,
-                        LocalDateTime.now()
-                )
-                .stream()
-                .findFirst()
-                .orElseThrow(() -> new BadRequestException("Booking does not exist"));
+        LocalDateTime now = LocalDateTime.now();
+
+        if (!commentEligibilityCache.isEligible(userId, itemId, now)) {
+            LocalDateTime end = findFinishedBookingEnd(userId, itemId, now)
+                    .orElseThrow(() -> new BadRequestException("Booking does not exist"));
+            commentEligibilityCache.recordApproved(userId, itemId, end);
+        }
+
         log.debug("Booking was found");
 
         try {
@@ -213,7 +322,8 @@ public class ItemService {
             comment.setItem(item);
 
             Comment savedComment = commentRepository.save(comment);
-            CommentDto resultDto = modelMapper.map(savedComment, CommentDto.class);
+            eventPublisher.publishEvent(new CommentCreatedEvent(savedComment.getId(), itemId));
+            CommentDto resultDto = CommentMapper.toCommentDto(savedComment);
             log.debug("Mapping from Comment to CommentDto: {}", resultDto);
             log.debug("Exiting createComment method");
 
@@ -224,4 +334,100 @@ public class ItemService {
             throw new InternalServerException("Something went wrong");
         }
     }
+
+    /**
+     * End of any finished APPROVED booking of the item by the user; each table is read up to the first match.
+     */
+    private Optional<LocalDateTime> findFinishedBookingEnd(long userId, long itemId, LocalDateTime now) {
+        return bookingRepository.findEndsByUserIdAndItemIdAndStatusAndBookingDateEndBefore(
+                        userId, itemId, BookingStatus.APPROVED, now, FIRST)
+                .stream()
+                .findFirst()
+                .or(() -> bookingArchiveRepository.findEndsByUserIdAndItemIdAndStatusAndBookingDateEndBefore(
+                                userId, itemId, BookingStatus.APPROVED, now, FIRST)
+                        .stream()
+                        .findFirst());
+    }
+
+    private ItemView loadItemView(long itemId) {
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(
+                        () -> new NotFoundException("Item with id " + itemId + " is not found"));
+        log.debug("Item was found");
+
+        itemBookingTracker.ensureCurrent(item);
+
+        try {
+            ItemDtoWithBooking ownerDto = ItemMapper.toItemDtoWithBooking(item);
+            ItemDtoWithBooking publicDto = ItemMapper.toItemDtoWithBooking(item);
+            publicDto.setLastBooking(null);
+            publicDto.setNextBooking(null);
+            log.debug("Mapping from Item to ItemDtoWithBooking: {}", ownerDto);
+
+            LocalDateTime validUntil = item.getNextBooking() != null
+                    ? item.getNextBooking().getStart()
+                    : null;
+
+            return new ItemView(item.getOwner().getId(), ownerDto, publicDto, validUntil);
+        } catch (Exception exc) {
+            log.error("An unexpected exception has occurred " + exc);
+
+            throw new InternalServerException("Something went wrong");
+        }
+    }
+
+    /**
+     * Reads the ids of at most {@value #MAX_WINDOW_CANDIDATES} text matches in one query, keeps the first
+     * {@code limit} free ones and loads only those.
+     */
+    private List<Item> searchFree(String text, int limit, LongPredicate isFree) {
+        return findAllByIdsInOrder(itemRepository.searchAvailableIds(text, MAX_WINDOW_CANDIDATES).stream()
+                .filter(isFree::test)
+                .limit(limit)
+                .collect(Collectors.toList()));
+    }
+
+    private ItemBookedIntervals loadBookedIntervals(long itemId, LocalDateTime from, LocalDateTime to) {
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(
+                        () -> new NotFoundException("Item with id " + itemId + " is not found"));
+        log.debug("Item was found");
+
+        if (!item.isAvailable()) return new ItemBookedIntervals(from, false, Collections.emptyList());
+
+        return new ItemBookedIntervals(from, true, List.copyOf(
+                bookingRepository.findIntervalsOfItemOverlapping(itemId, BookingStatus.REJECTED, from, to)));
+    }
+
+    private static List<FreeIntervalDto> sweepFreeIntervals(List<BookingIntervalDto> bookedByStart,
+                                                            LocalDateTime from, LocalDateTime to) {
+        List<FreeIntervalDto> freeIntervals = new ArrayList<>();
+        LocalDateTime freeSince = from;
+
+        for (BookingIntervalDto booked : bookedByStart) {
+            if (booked.getStart().isAfter(freeSince)) {
+                freeIntervals.add(new FreeIntervalDto(freeSince, booked.getStart()));
+            }
+
+            if (booked.getEnd().isAfter(freeSince)) freeSince = booked.getEnd();
+        }
+
+        if (freeSince.isBefore(to)) freeIntervals.add(new FreeIntervalDto(freeSince, to));
+
+        return freeIntervals;
+    }
+
+    private List<Item> findAllByIdsInOrder(List<Long> ids) {
+        Map<Long, Item> itemsById = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        return ids.stream()
+                .map(itemsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static ItemChangedEvent toChangedEvent(Item item) {
+        return new ItemChangedEvent(item.getId(), item.getName(), item.getDescription(), item.isAvailable());
+    }
 }
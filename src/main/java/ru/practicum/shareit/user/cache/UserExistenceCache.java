@@ -0,0 +1,83 @@
+package ru.practicum.shareit.user.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+/**
+ * Bounded cache of whether a user id exists, so the X-Sharer-User-Id check does not
+ * hit the database on every request. Only existing users are cached, so a user created
+ * on another instance is found right away; deleting a user drops the entry once the
+ * transaction commits. Metrics are published with tag {@code cache=users}.
+ */
+@Slf4j
+@Component
+public class UserExistenceCache {
+
+    private final Cache<Long, Boolean> cache;
+
+    private final UserRepository userRepository;
+
+    public UserExistenceCache(
+            UserRepository userRepository,
+            @Value("${shareit.cache.users.max-size:100000}") long maxSize,
+            @Value("${shareit.cache.users.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    public boolean exists(long userId) {
+        if (cache.getIfPresent(userId) != null) return true;
+
+        boolean exists = userRepository.existsById(userId);
+
+        if (exists) cache.put(userId, Boolean.TRUE);
+
+        return exists;
+    }
+
+    public void markCreated(long userId) {
+        afterCommit(() -> {
+            log.debug("Caching created user: userId = {}", userId);
+            cache.put(userId, Boolean.TRUE);
+        });
+    }
+
+    public void markDeleted(long userId) {
+        afterCommit(() -> {
+            log.debug("Forgetting deleted user: userId = {}", userId);
+            cache.invalidate(userId);
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
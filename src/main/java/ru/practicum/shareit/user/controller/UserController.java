@@ -3,15 +3,21 @@ package ru.practicum.shareit.user.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.CreateUserDto;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
+import ru.practicum.shareit.user.dto.UserDeletionJobDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.net.URI;
 import java.util.List;
 
 @Validated
@@ -20,12 +26,31 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
     private final UserService userService;
 
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    @ResponseStatus(HttpStatus.OK)
-    public List<UserDto> getAllUsers() {
-        return userService.getAllUsers();
+    public ResponseEntity<List<UserDto>> getAllUsers(
+            @RequestParam(defaultValue = "0") @PositiveOrZero long cursor,
+            @RequestParam(required = false) @Positive @Max(1000) Integer size
+    ) {
+        List<UserDto> users = userService.getAllUsers(cursor, size);
+
+        if (size == null || users.size() < size) return ResponseEntity.ok(users);
+
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, String.valueOf(users.get(users.size() - 1).getId()))
+                .body(users);
+    }
+
+    @GetMapping(produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+                .body(userService::streamAllUsers);
     }
 
     @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -61,4 +86,19 @@ public class UserController {
     public void deleteUser(@PathVariable @Positive long id) {
         userService.deleteUser(id);
     }
+
+    @DeleteMapping(value = "/{id}", params = "async=true", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<UserDeletionJobDto> startUserDeletion(@PathVariable @Positive long id) {
+        UserDeletionJobDto job = userService.startUserDeletion(id);
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/users/deletions/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping(value = "/deletions/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public UserDeletionJobDto getUserDeletion(@PathVariable String jobId) {
+        return userService.getUserDeletion(jobId);
+    }
 }
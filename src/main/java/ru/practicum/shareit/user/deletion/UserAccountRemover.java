@@ -0,0 +1,73 @@
+package ru.practicum.shareit.user.deletion;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingTracker;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Deletes a user with one DELETE statement and lets the ON DELETE CASCADE foreign keys remove
+ * their items, bookings and comments, instead of loading every child row through JPA.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserAccountRemover {
+
+    private final UserRepository userRepository;
+
+    private final ItemRepository itemRepository;
+
+    private final BookingRepository bookingRepository;
+
+    private final ItemBookingTracker itemBookingTracker;
+
+    private final UserExistenceCache userExistenceCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public boolean remove(long userId) {
+        return remove(userId, Set.of(), Set.of());
+    }
+
+    /**
+     * Same as {@link #remove(long)}; {@code ownedItemIds} and {@code bookedItemIds} name items whose
+     * rows were already deleted in earlier transactions, so the in-memory indexes still hear about them.
+     * Returns false when the user did not exist.
+     */
+    @Transactional
+    public boolean remove(long userId, Collection<Long> ownedItemIds, Collection<Long> bookedItemIds) {
+        log.debug("Entering remove method: userId = {}", userId);
+
+        Set<Long> owned = new HashSet<>(ownedItemIds);
+        owned.addAll(itemRepository.findIdsByOwnerId(userId));
+        Set<Long> booked = new HashSet<>(bookedItemIds);
+        booked.addAll(bookingRepository.findItemIdsBookedBy(userId));
+        booked.removeAll(owned);
+
+        if (userRepository.deleteInBulk(userId) == 0) {
+            log.debug("Exiting remove method: user was already deleted");
+
+            return false;
+        }
+
+        itemBookingTracker.onBookerDeleted(userId);
+        userExistenceCache.markDeleted(userId);
+        eventPublisher.publishEvent(new UserDeletedEvent(userId, owned, booked));
+        log.debug("Exiting remove method: {} owned and {} booked items affected", owned.size(), booked.size());
+
+        return true;
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.user.deletion;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one asynchronous account deletion. Written by the deletion thread only,
+ * read by status requests.
+ */
+@Getter
+@RequiredArgsConstructor
+public class UserDeletionJob {
+
+    public enum Status { PENDING, RUNNING, DONE, FAILED }
+
+    public enum Phase { BOOKINGS, ARCHIVED_BOOKINGS, ITEMS, USER }
+
+    private final String id;
+
+    private final long userId;
+
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private final AtomicLong deletedBookings = new AtomicLong();
+
+    private final AtomicLong deletedItems = new AtomicLong();
+
+    private volatile Status status = Status.PENDING;
+
+    private volatile Phase phase;
+
+    private volatile LocalDateTime finishedAt;
+
+    void start(Phase phase) {
+        this.status = Status.RUNNING;
+        this.phase = phase;
+    }
+
+    void finish(Status status) {
+        this.status = status;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED;
+    }
+}
@@ -0,0 +1,174 @@
+package ru.practicum.shareit.user.deletion;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Deletes large accounts in the background. Bookings, archived bookings and items are removed
+ * in chunks of {@code shareit.users.deletion.batch-size} rows, each chunk in its own transaction,
+ * and the user row goes last through {@link UserAccountRemover}. Until then the in-memory booking
+ * indexes may still hold the deleted bookings, which only makes availability checks stricter.
+ * Jobs run one at a time and stay queryable for {@code shareit.users.deletion.retention}.
+ */
+@Slf4j
+@Component
+public class UserDeletionJobs {
+
+    private final BookingRepository bookingRepository;
+
+    private final BookingArchiveRepository bookingArchiveRepository;
+
+    private final ItemRepository itemRepository;
+
+    private final UserAccountRemover userAccountRemover;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    private final Cache<String, UserDeletionJob> jobs;
+
+    private final Map<Long, UserDeletionJob> activeJobsByUser = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-deletion");
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    public UserDeletionJobs(BookingRepository bookingRepository,
+                            BookingArchiveRepository bookingArchiveRepository,
+                            ItemRepository itemRepository,
+                            UserAccountRemover userAccountRemover,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${shareit.users.deletion.batch-size:500}") int batchSize,
+                            @Value("${shareit.users.deletion.retention:1h}") Duration retention) {
+        this.bookingRepository = bookingRepository;
+        this.bookingArchiveRepository = bookingArchiveRepository;
+        this.itemRepository = itemRepository;
+        this.userAccountRemover = userAccountRemover;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterAccess(retention)
+                .build();
+    }
+
+    /**
+     * Queues the deletion of the user; returns the job already queued or running for them, if any.
+     */
+    public UserDeletionJob submit(long userId) {
+        UserDeletionJob job = activeJobsByUser.computeIfAbsent(userId, id -> {
+            UserDeletionJob created = new UserDeletionJob(UUID.randomUUID().toString(), id);
+            jobs.put(created.getId(), created);
+            executor.execute(() -> run(created));
+
+            return created;
+        });
+        log.debug("Deletion job {} of user {} is {}", job.getId(), userId, job.getStatus());
+
+        return job;
+    }
+
+    public Optional<UserDeletionJob> find(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(UserDeletionJob job) {
+        long userId = job.getUserId();
+        log.debug("Entering run method: job = {}, userId = {}", job.getId(), userId);
+
+        try {
+            Set<Long> ownedItemIds = new HashSet<>(itemRepository.findIdsByOwnerId(userId));
+            Set<Long> bookedItemIds = new HashSet<>(bookingRepository.findItemIdsBookedBy(userId));
+
+            job.start(UserDeletionJob.Phase.BOOKINGS);
+            deleteInChunks(job, bookingRepository::findIdsByBookerAfter, bookingRepository::deleteByIds,
+                    job.getDeletedBookings()::addAndGet);
+            deleteInChunks(job, bookingRepository::findIdsByOwnerAfter, bookingRepository::deleteByIds,
+                    job.getDeletedBookings()::addAndGet);
+
+            job.start(UserDeletionJob.Phase.ARCHIVED_BOOKINGS);
+            deleteInChunks(job, bookingArchiveRepository::findIdsByBookerAfter, bookingArchiveRepository::deleteByIds,
+                    job.getDeletedBookings()::addAndGet);
+            deleteInChunks(job, bookingArchiveRepository::findIdsByOwnerAfter, bookingArchiveRepository::deleteByIds,
+                    job.getDeletedBookings()::addAndGet);
+
+            job.start(UserDeletionJob.Phase.ITEMS);
+            deleteInChunks(job, itemRepository::findIdsByOwnerIdAfter, itemRepository::deleteByIds,
+                    job.getDeletedItems()::addAndGet);
+
+            job.start(UserDeletionJob.Phase.USER);
+            userAccountRemover.remove(userId, ownedItemIds, bookedItemIds);
+            job.finish(UserDeletionJob.Status.DONE);
+            log.debug("Exiting run method: {} bookings and {} items deleted",
+                    job.getDeletedBookings().get(), job.getDeletedItems().get());
+        } catch (Exception exc) {
+            log.error("Deletion of user {} failed in phase {}: {}", userId, job.getPhase(), exc.toString());
+            job.finish(UserDeletionJob.Status.FAILED);
+        } finally {
+            activeJobsByUser.remove(userId);
+        }
+    }
+
+    /**
+     * Walks the ids of the user's rows and deletes them chunk by chunk, each chunk in its own transaction.
+     */
+    private void deleteInChunks(UserDeletionJob job, IdChunkFinder finder, ToIntFunction<List<Long>> deleter,
+                                LongConsumer progress) {
+        Pageable chunk = PageRequest.of(0, batchSize);
+        long lastId = 0;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Long> ids = finder.find(job.getUserId(), lastId, chunk);
+
+            if (ids.isEmpty()) return;
+
+            Integer deleted = transactionTemplate.execute(status -> deleter.applyAsInt(ids));
+            progress.accept(deleted == null ? 0 : deleted);
+            lastId = ids.get(ids.size() - 1);
+
+            if (ids.size() < batchSize) return;
+        }
+
+        throw new IllegalStateException("Interrupted");
+    }
+
+    @FunctionalInterface
+    private interface IdChunkFinder {
+
+        List<Long> find(long userId, long afterId, Pageable pageable);
+    }
+}
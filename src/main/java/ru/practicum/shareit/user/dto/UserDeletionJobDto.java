@@ -0,0 +1,27 @@
+package ru.practicum.shareit.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserDeletionJobDto {
+
+    private String id;
+
+    private long userId;
+
+    private String status;
+
+    private String phase;
+
+    private long deletedBookings;
+
+    private long deletedItems;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime finishedAt;
+}
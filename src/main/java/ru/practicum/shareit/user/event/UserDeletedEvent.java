@@ -0,0 +1,24 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.Set;
+
+/**
+ * Published after a user and, through the database cascade, everything that belongs to them
+ * was deleted. {@code ownedItemIds} are gone with the user; {@code bookedItemIds} are items of
+ * other owners that lost the user's bookings.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class UserDeletedEvent {
+
+    private final long userId;
+
+    private final Set<Long> ownedItemIds;
+
+    private final Set<Long> bookedItemIds;
+}
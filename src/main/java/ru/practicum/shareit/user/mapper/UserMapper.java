@@ -0,0 +1,48 @@
+package ru.practicum.shareit.user.mapper;
+
+import ru.practicum.shareit.user.deletion.UserDeletionJob;
+import ru.practicum.shareit.user.dto.UserDeletionJobDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class UserMapper {
+
+    private UserMapper() {
+    }
+
+    public static UserDto toUserDto(User user) {
+        UserDto dto = new UserDto();
+        dto.setId(user.getId());
+        dto.setEmail(user.getEmail());
+        dto.setName(user.getName());
+
+        return dto;
+    }
+
+    public static List<UserDto> toUserDtos(List<User> users) {
+        List<UserDto> dtos = new ArrayList<>(users.size());
+
+        for (User user : users) {
+            dtos.add(toUserDto(user));
+        }
+
+        return dtos;
+    }
+
+    public static UserDeletionJobDto toUserDeletionJobDto(UserDeletionJob job) {
+        UserDeletionJobDto dto = new UserDeletionJobDto();
+        dto.setId(job.getId());
+        dto.setUserId(job.getUserId());
+        dto.setStatus(job.getStatus().name());
+        dto.setPhase(job.getPhase() == null ? null : job.getPhase().name());
+        dto.setDeletedBookings(job.getDeletedBookings().get());
+        dto.setDeletedItems(job.getDeletedItems().get());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+
+        return dto;
+    }
+}
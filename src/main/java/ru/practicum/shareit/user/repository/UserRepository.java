@@ -1,9 +1,23 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserStreamRepository {
+
+    List<User> findAllByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    /**
+     * Deletes the user row only; the database cascade removes items, bookings and comments.
+     */
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = ?1")
+    int deleteInBulk(long userId);
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.user.repository;
+
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.function.Consumer;
+
+public interface UserStreamRepository {
+
+    /**
+     * Passes every user to the consumer in id order while the rows are read from a forward-only
+     * result set, without loading entities or collecting them. Must run inside a transaction,
+     * otherwise PostgreSQL ignores the fetch size and reads the whole result at once.
+     */
+    void forEachUser(Consumer<UserDto> consumer);
+}
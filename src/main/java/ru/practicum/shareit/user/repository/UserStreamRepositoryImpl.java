@@ -0,0 +1,32 @@
+package ru.practicum.shareit.user.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.sql.DataSource;
+import java.util.function.Consumer;
+
+public class UserStreamRepositoryImpl implements UserStreamRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String SELECT_ALL = "SELECT id, email, name FROM users ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserStreamRepositoryImpl(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    @Override
+    public void forEachUser(Consumer<UserDto> consumer) {
+        jdbcTemplate.query(SELECT_ALL, resultSet -> {
+            UserDto user = new UserDto();
+            user.setId(resultSet.getLong("id"));
+            user.setEmail(resultSet.getString("email"));
+            user.setName(resultSet.getString("name"));
+            consumer.accept(user);
+        });
+    }
+}
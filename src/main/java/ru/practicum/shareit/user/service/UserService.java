@@ -1,22 +1,38 @@
 package ru.practicum.shareit.user.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.exceptionimp.ConflictException;
 import ru.practicum.shareit.exception.exceptionimp.InternalServerException;
 import ru.practicum.shareit.exception.exceptionimp.NotFoundException;
+import ru.practicum.shareit.user.cache.UserExistenceCache;
+import ru.practicum.shareit.user.deletion.UserAccountRemover;
+import ru.practicum.shareit.user.deletion.UserDeletionJobs;
 import ru.practicum.shareit.user.dto.CreateUserDto;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
+import ru.practicum.shareit.user.dto.UserDeletionJobDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import org.hibernate.exception.ConstraintViolationException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @Slf4j
@@ -26,16 +42,27 @@ public class UserService {
 
     private final UserRepository userRepository;
 
+    private final UserExistenceCache userExistenceCache;
+
+    private final UserAccountRemover userAccountRemover;
+
+    private final UserDeletionJobs userDeletionJobs;
+
     private final ModelMapper modelMapper;
 
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Users with id greater than {@code afterId} in id order; all of them when {@code size} is null.
+     */
     @Transactional(readOnly = true)
-    public List<UserDto> getAllUsers() {
+    public List<UserDto> getAllUsers(long afterId, Integer size) {
         try {
-            log.debug("Entering getAllUsers method");
+            log.debug("Entering getAllUsers method: afterId = {}, size = {}", afterId, size);
 
-            List<User> users = userRepository.findAll();
-            List<UserDto> resultDtos =
-                    modelMapper.map(users, new TypeToken<List<UserDto>>() {}.getType());
+            Pageable page = size == null ? Pageable.unpaged() : PageRequest.of(0, size);
+            List<User> users = userRepository.findAllByIdGreaterThanOrderByIdAsc(afterId, page);
+            List<UserDto> resultDtos = UserMapper.toUserDtos(users);
             log.debug("Mapping from List<User> to List<UserDto>: {}", resultDtos);
             log.debug("Exiting getAllUsers method");
 
@@ -47,6 +74,36 @@ public class UserService {
         }
     }
 
+    /**
+     * Writes every user as one JSON line while the rows are read, so memory use does not
+     * depend on the number of users. The transaction keeps the database cursor open.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllUsers(OutputStream outputStream) throws IOException {
+        log.debug("Entering streamAllUsers method");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        ObjectWriter userWriter = objectMapper.writerFor(UserDto.class);
+        long[] count = new long[1];
+
+        try {
+            userRepository.forEachUser(user -> {
+                try {
+                    writer.write(userWriter.writeValueAsString(user));
+                    writer.write('\n');
+                    count[0]++;
+                } catch (IOException exc) {
+                    throw new UncheckedIOException(exc);
+                }
+            });
+        } catch (UncheckedIOException exc) {
+            throw exc.getCause();
+        }
+
+        writer.flush();
+        log.debug("Exiting streamAllUsers method: {} users written", count[0]);
+    }
+
     @Transactional(readOnly = true)
     public UserDto getOneUserById(long id) {
         log.debug("Entering getOneUserById method: id = {}", id);
@@ -56,7 +113,7 @@ public class UserService {
         log.debug("User was found");
 
         try {
-            UserDto userDto = modelMapper.map(user, UserDto.class);
+            UserDto userDto = UserMapper.toUserDto(user);
             log.debug("Mapping from User to UserDto: {}", userDto);
             log.debug("Exiting getOneUserById method");
 
@@ -77,7 +134,8 @@ public class UserService {
             log.debug("Mapping from CreateUserDto to User entity {}", userEntity);
 
             User savedUser = userRepository.save(userEntity);
-            UserDto userDtoResult = modelMapper.map(savedUser, UserDto.class);
+            userExistenceCache.markCreated(savedUser.getId());
+            UserDto userDtoResult = UserMapper.toUserDto(savedUser);
             log.debug("Mapping from User entity to UserDto {}", userDtoResult);
             log.debug("Exiting createUser method");
 
@@ -115,7 +173,7 @@ public class UserService {
             userEntity.setEmail(newEmail);
 
             User updatedUser = userRepository.save(userEntity);
-            UserDto userDtoResult = modelMapper.map(updatedUser, UserDto.class);
+            UserDto userDtoResult = UserMapper.toUserDto(updatedUser);
             log.debug("Mapping from User entity to UserDto {}", userDtoResult);
             log.debug("Exiting updateUser method");
 
@@ -131,16 +189,13 @@ public class UserService {
         }
     }
 
-    @Transactional
     public void deleteUser(long id) {
         log.debug("Entering deleteUser method: id = {}", id);
 
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("User with id " + id + " is not found"));
-        log.debug("User was found");
+        if (!userExistenceCache.exists(id)) throw new NotFoundException("User with id " + id + " is not found");
 
         try {
-            userRepository.delete(user);
+            userAccountRemover.remove(id);
             log.debug("Exiting deleteUser method");
         } catch (Exception exc) {
             log.error("An unexpected exception has occurred " + exc);
@@ -148,4 +203,24 @@ public class UserService {
             throw new InternalServerException("Something went wrong");
         }
     }
+
+    /**
+     * Starts deleting the user in the background; see {@link UserDeletionJobs}.
+     */
+    public UserDeletionJobDto startUserDeletion(long id) {
+        log.debug("Entering startUserDeletion method: id = {}", id);
+
+        if (!userExistenceCache.exists(id)) throw new NotFoundException("User with id " + id + " is not found");
+
+        UserDeletionJobDto dto = UserMapper.toUserDeletionJobDto(userDeletionJobs.submit(id));
+        log.debug("Exiting startUserDeletion method: {}", dto);
+
+        return dto;
+    }
+
+    public UserDeletionJobDto getUserDeletion(String jobId) {
+        return userDeletionJobs.find(jobId)
+                .map(UserMapper::toUserDeletionJobDto)
+                .orElseThrow(() -> new NotFoundException("Deletion job " + jobId + " is not found"));
+    }
 }
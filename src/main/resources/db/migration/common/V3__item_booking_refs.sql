@@ -0,0 +1,7 @@
+-- Last and next booking of an item, kept up to date by the booking writes.
+ALTER TABLE items ADD COLUMN last_booking_id BIGINT;
+ALTER TABLE items ADD COLUMN last_booker_id BIGINT;
+ALTER TABLE items ADD COLUMN last_booking_start TIMESTAMP;
+ALTER TABLE items ADD COLUMN next_booking_id BIGINT;
+ALTER TABLE items ADD COLUMN next_booker_id BIGINT;
+ALTER TABLE items ADD COLUMN next_booking_start TIMESTAMP;
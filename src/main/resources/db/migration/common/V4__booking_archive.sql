@@ -0,0 +1,21 @@
+-- Bookings that ended long ago, moved out of the booking table with their ids.
+CREATE TABLE booking_archive (
+    id BIGINT NOT NULL,
+    booking_date_start TIMESTAMP NOT NULL,
+    booking_date_end TIMESTAMP NOT NULL,
+    status VARCHAR(10) NOT NULL,
+    user_id INTEGER NOT NULL,
+    item_id INTEGER NOT NULL,
+    CONSTRAINT PK_BOOKING_ARCHIVE PRIMARY KEY (id)
+);
+
+-- Indexes go before the foreign keys, so databases that index referencing columns
+-- on their own (H2) reuse them instead of adding duplicates.
+CREATE INDEX IX_BOOKING_ARCHIVE_USER_END ON booking_archive (user_id, booking_date_end, id);
+CREATE INDEX IX_BOOKING_ARCHIVE_ITEM_END ON booking_archive (item_id, booking_date_end, id);
+CREATE INDEX IX_BOOKING_ARCHIVE_USER_ITEM_END ON booking_archive (user_id, item_id, booking_date_end);
+
+ALTER TABLE booking_archive ADD CONSTRAINT FK_BOOKING_ARCHIVE_USER
+    FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE;
+ALTER TABLE booking_archive ADD CONSTRAINT FK_BOOKING_ARCHIVE_ITEM
+    FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE;
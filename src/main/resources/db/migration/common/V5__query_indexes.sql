@@ -0,0 +1,21 @@
+-- Items of an owner: owner side of booking search, owner item list and batch decisions.
+CREATE INDEX IX_ITEMS_USER ON items (user_id);
+
+-- Booker side of booking search, ordered by (end DESC, id DESC).
+CREATE INDEX IX_BOOKING_USER_END ON booking (user_id, booking_date_end, id);
+
+-- Owner side of booking search once the owner's items are known.
+CREATE INDEX IX_BOOKING_ITEM_END ON booking (item_id, booking_date_end, id);
+
+-- Last/next booking of an item and its free intervals.
+CREATE INDEX IX_BOOKING_ITEM_START ON booking (item_id, booking_date_start);
+
+-- Comment eligibility: a finished booking of the user for the item.
+CREATE INDEX IX_BOOKING_USER_ITEM_END ON booking (user_id, item_id, booking_date_end);
+
+-- Interval index rebuild and the archiver cursor.
+CREATE INDEX IX_BOOKING_END ON booking (booking_date_end);
+
+-- Comments of an item and of a user.
+CREATE INDEX IX_COMMENTS_ITEM ON comments (item_id);
+CREATE INDEX IX_COMMENTS_USER ON comments (user_id);
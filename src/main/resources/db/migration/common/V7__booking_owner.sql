@@ -0,0 +1,17 @@
+-- Owner of the booked item, copied onto the booking so owner-side queries stay on one table.
+ALTER TABLE booking ADD COLUMN owner_id BIGINT;
+ALTER TABLE booking_archive ADD COLUMN owner_id BIGINT;
+
+UPDATE booking SET owner_id = (SELECT i.user_id FROM items i WHERE i.id = booking.item_id);
+UPDATE booking_archive SET owner_id = (SELECT i.user_id FROM items i WHERE i.id = booking_archive.item_id);
+
+ALTER TABLE booking ALTER COLUMN owner_id SET NOT NULL;
+ALTER TABLE booking_archive ALTER COLUMN owner_id SET NOT NULL;
+
+CREATE INDEX IX_BOOKING_OWNER_END ON booking (owner_id, booking_date_end, id);
+CREATE INDEX IX_BOOKING_ARCHIVE_OWNER_END ON booking_archive (owner_id, booking_date_end, id);
+
+ALTER TABLE booking ADD CONSTRAINT FK_BOOKING_OWNER
+    FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE;
+ALTER TABLE booking_archive ADD CONSTRAINT FK_BOOKING_ARCHIVE_OWNER
+    FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE;
@@ -0,0 +1,19 @@
+-- Last and next booking references of items that were booked before the columns existed.
+UPDATE items SET
+    last_booking_id = (SELECT b.id FROM booking b
+        WHERE b.item_id = items.id AND b.status <> 'REJECTED' AND b.booking_date_start < CURRENT_TIMESTAMP
+        ORDER BY b.booking_date_start DESC, b.id DESC LIMIT 1),
+    next_booking_id = (SELECT b.id FROM booking b
+        WHERE b.item_id = items.id AND b.status <> 'REJECTED' AND b.booking_date_start > CURRENT_TIMESTAMP
+        ORDER BY b.booking_date_start, b.id LIMIT 1)
+WHERE last_booking_id IS NULL AND next_booking_id IS NULL;
+
+UPDATE items SET
+    last_booker_id = (SELECT b.user_id FROM booking b WHERE b.id = items.last_booking_id),
+    last_booking_start = (SELECT b.booking_date_start FROM booking b WHERE b.id = items.last_booking_id)
+WHERE last_booking_id IS NOT NULL AND last_booking_start IS NULL;
+
+UPDATE items SET
+    next_booker_id = (SELECT b.user_id FROM booking b WHERE b.id = items.next_booking_id),
+    next_booking_start = (SELECT b.booking_date_start FROM booking b WHERE b.id = items.next_booking_id)
+WHERE next_booking_id IS NOT NULL AND next_booking_start IS NULL;
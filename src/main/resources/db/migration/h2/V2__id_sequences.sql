@@ -0,0 +1,11 @@
+-- Pooled id sequences. Hibernate hands out up to 49 ids below the first value it reads,
+-- so every sequence starts 50 above the largest id already in use.
+CREATE SEQUENCE users_seq INCREMENT BY 50;
+CREATE SEQUENCE items_seq INCREMENT BY 50;
+CREATE SEQUENCE booking_seq INCREMENT BY 50;
+CREATE SEQUENCE comments_seq INCREMENT BY 50;
+
+ALTER SEQUENCE users_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM users);
+ALTER SEQUENCE items_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM items);
+ALTER SEQUENCE booking_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM booking);
+ALTER SEQUENCE comments_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM comments);
@@ -0,0 +1,11 @@
+-- Pooled id sequences. Hibernate hands out up to 49 ids below the first value it reads,
+-- so every sequence starts 50 above the largest id already in use.
+CREATE SEQUENCE users_seq INCREMENT BY 50;
+CREATE SEQUENCE items_seq INCREMENT BY 50;
+CREATE SEQUENCE booking_seq INCREMENT BY 50;
+CREATE SEQUENCE comments_seq INCREMENT BY 50;
+
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM users), false);
+SELECT setval('items_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM items), false);
+SELECT setval('booking_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM booking), false);
+SELECT setval('comments_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM comments), false);
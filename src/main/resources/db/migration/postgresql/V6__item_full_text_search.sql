@@ -0,0 +1,4 @@
+ALTER TABLE items ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', name || ' ' || description)) STORED;
+
+CREATE INDEX IX_ITEMS_SEARCH_VECTOR ON items USING GIN (search_vector);
@@ -0,0 +1,221 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CreateCommentDto;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.UpdateItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.CreateUserDto;
+import ru.practicum.shareit.user.dto.UpdateUserDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the JDBC statements every service method prepares, so a lazy association
+ * touched by an ownership check or a log line shows up as a failing bound.
+ * Bounds are upper limits because sequence fetches depend on the test order.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-counts",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class QueryCountTests {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private static final AtomicLong PAST_BOOKING_ID = new AtomicLong(1_000_000);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private UserDto owner;
+
+    private UserDto booker;
+
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = createUser("owner");
+        booker = createUser("booker");
+        item = itemService.createItem(owner.getId(), createItemDto("Drill"));
+    }
+
+    @Test
+    void createBooking() {
+        assertQueryCount(5, () -> createFutureBooking());
+    }
+
+    @Test
+    void approveBooking() {
+        BookingDto booking = createFutureBooking();
+
+        assertQueryCount(3, () -> bookingService.approveBooking(owner.getId(), booking.getId(), true));
+    }
+
+    @Test
+    void getBookingById() {
+        BookingDto booking = createFutureBooking();
+
+        assertQueryCount(1, () -> bookingService.getBookingById(booker.getId(), booking.getId()));
+        assertQueryCount(1, () -> bookingService.getBookingById(owner.getId(), booking.getId()));
+    }
+
+    @Test
+    void getAllUserAndOwnerBookings() {
+        createFutureBooking();
+
+        assertQueryCount(1, () -> bookingService.getAllUserBooking(booker.getId(), "ALL", 0, 10, null));
+        assertQueryCount(1, () -> bookingService.getAllOwnerBooking(owner.getId(), "ALL", 0, 10, null));
+    }
+
+    @Test
+    void getOwnerBookingSummary() {
+        createFutureBooking();
+
+        assertQueryCount(2, () -> bookingService.getOwnerBookingSummary(owner.getId(), true));
+    }
+
+    @Test
+    void createItem() {
+        assertQueryCount(2, () -> itemService.createItem(owner.getId(), createItemDto("Saw")));
+    }
+
+    @Test
+    void updateItem() {
+        UpdateItemDto dto = new UpdateItemDto();
+        dto.setUserId(owner.getId());
+        dto.setItemId(item.getId());
+        dto.setName("Hammer drill");
+
+        assertQueryCount(2, () -> itemService.updateItem(dto));
+    }
+
+    @Test
+    void getOneItemById() {
+        assertQueryCount(2, () -> itemService.getOneItemById(owner.getId(), item.getId()));
+    }
+
+    @Test
+    void getOwnersItems() {
+        assertQueryCount(1, () -> itemService.getOwnersItems(owner.getId()));
+    }
+
+    @Test
+    void createComment() {
+        insertPastApprovedBooking();
+        CreateCommentDto dto = new CreateCommentDto();
+        dto.setText("Works fine");
+
+        assertQueryCount(5, () -> itemService.createComment(booker.getId(), item.getId(), dto));
+    }
+
+    @Test
+    void repeatedCommentSkipsBookingTables() {
+        insertPastApprovedBooking();
+        CreateCommentDto dto = new CreateCommentDto();
+        dto.setText("Works fine");
+        itemService.createComment(booker.getId(), item.getId(), dto);
+
+        assertQueryCount(4, () -> itemService.createComment(booker.getId(), item.getId(), dto));
+        assertThat(statistics.getQueries()).noneMatch(query -> query.contains("Booking"));
+    }
+
+    @Test
+    void getOneUserById() {
+        assertQueryCount(1, () -> userService.getOneUserById(owner.getId()));
+    }
+
+    @Test
+    void updateUser() {
+        UpdateUserDto dto = new UpdateUserDto();
+        dto.setId(booker.getId());
+        dto.setName("renamed");
+
+        assertQueryCount(2, () -> userService.updateUser(dto));
+    }
+
+    @Test
+    void deleteUser() {
+        createFutureBooking();
+
+        assertQueryCount(4, () -> userService.deleteUser(owner.getId()));
+    }
+
+    private void assertQueryCount(long max, Runnable call) {
+        statistics.clear();
+        call.run();
+        long count = statistics.getPrepareStatementCount();
+
+        assertThat(count).as("statements prepared").isLessThanOrEqualTo(max);
+    }
+
+    private UserDto createUser(String name) {
+        long n = SEQUENCE.incrementAndGet();
+        CreateUserDto dto = new CreateUserDto();
+        dto.setName(name + n);
+        dto.setEmail(name + n + "@example.com");
+
+        return userService.createUser(dto);
+    }
+
+    private static CreateItemDto createItemDto(String name) {
+        CreateItemDto dto = new CreateItemDto();
+        dto.setName(name);
+        dto.setDescription(name + " for rent");
+        dto.setAvailable(true);
+
+        return dto;
+    }
+
+    private BookingDto createFutureBooking() {
+        LocalDateTime start = LocalDateTime.now().plusDays(SEQUENCE.incrementAndGet());
+        CreateBookingDto dto = new CreateBookingDto();
+        dto.setItemId(item.getId());
+        dto.setStart(start);
+        dto.setEnd(start.plusHours(1));
+
+        return bookingService.createBooking(booker.getId(), dto);
+    }
+
+    private void insertPastApprovedBooking() {
+        LocalDateTime start = LocalDateTime.now().minusDays(2);
+        jdbcTemplate.update("INSERT INTO booking (id, booking_date_start, booking_date_end, status, user_id, item_id, "
+                        + "owner_id) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                PAST_BOOKING_ID.incrementAndGet(), Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)),
+                BookingStatus.APPROVED.name(), booker.getId(), item.getId(), owner.getId());
+    }
+}
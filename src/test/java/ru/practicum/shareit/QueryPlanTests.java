@@ -0,0 +1,227 @@
+package ru.practicum.shareit;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.enums.BookingSearchSide;
+import ru.practicum.shareit.booking.enums.BookingSearchState;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs repository queries on a seeded H2 database, captures the SQL Hibernate sends
+ * and checks with EXPLAIN that the planner picks the indexes from the migrations.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:query-plans")
+@Import(QueryPlanTests.CaptureConfig.class)
+class QueryPlanTests {
+
+    private static final int USERS = 200;
+
+    private static final int ITEMS = 2_000;
+
+    private static final int BOOKINGS = 20_000;
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private static final Pageable PAGE = PageRequest.of(0, 10);
+
+    private static final Pageable FIRST = PageRequest.of(0, 1);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingArchiveRepository bookingArchiveRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @BeforeAll
+    static void seed(@Autowired JdbcTemplate jdbcTemplate) {
+        Random random = new Random(7);
+        List<Object[]> rows = new ArrayList<>();
+
+        for (int i = 1; i <= USERS; i++) {
+            rows.add(new Object[]{i, "user" + i + "@example.com", "user" + i});
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, email, name) VALUES (?, ?, ?)", rows);
+        rows.clear();
+
+        int[] owners = new int[ITEMS + 1];
+
+        for (int i = 1; i <= ITEMS; i++) {
+            owners[i] = 1 + random.nextInt(USERS);
+            rows.add(new Object[]{i, "item " + i, "description " + i, true, owners[i]});
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, available, user_id) VALUES (?, ?, ?, ?, ?)", rows);
+        rows.clear();
+
+        for (int i = 1; i <= BOOKINGS; i++) {
+            LocalDateTime start = NOW.plusHours(random.nextInt(24 * 365 * 4) - 24 * 365 * 3);
+            int item = 1 + random.nextInt(ITEMS);
+            rows.add(new Object[]{
+                i,
+                Timestamp.valueOf(start),
+                Timestamp.valueOf(start.plusHours(1 + random.nextInt(72))),
+                BookingStatus.values()[random.nextInt(BookingStatus.values().length)].name(),
+                1 + random.nextInt(USERS),
+                item,
+                owners[item]
+            });
+        }
+
+        String columns = "(id, booking_date_start, booking_date_end, status, user_id, item_id, owner_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        jdbcTemplate.batchUpdate("INSERT INTO booking " + columns, rows);
+        jdbcTemplate.batchUpdate("INSERT INTO booking_archive " + columns, rows);
+        rows.clear();
+
+        for (int i = 1; i <= ITEMS; i++) {
+            rows.add(new Object[]{i, "comment " + i, Timestamp.valueOf(NOW), 1 + random.nextInt(USERS), i});
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO comments (id, text, created, user_id, item_id) VALUES (?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void bookerSearchLooksUpBookingsByBooker() {
+        assertPlanLooksUp(() -> bookingRepository.search(BookingSearchSide.BOOKER, 1, BookingSearchState.ALL,
+                NOW, BookingCursor.FIRST, PAGE), "USER_ID");
+    }
+
+    @Test
+    void ownerSearchLooksUpBookingsByOwner() {
+        assertPlanLooksUp(() -> bookingRepository.search(BookingSearchSide.OWNER, 1, BookingSearchState.ALL,
+                NOW, BookingCursor.FIRST, PAGE), "OWNER_ID");
+    }
+
+    @Test
+    void ownerSummaryLooksUpBookingsByOwner() {
+        assertPlanLooksUp(() -> bookingRepository.countStatesPerItemOfOwner(1, NOW), "OWNER_ID");
+        assertPlanLooksUp(() -> bookingArchiveRepository.countStatesPerItemOfOwner(1, NOW), "OWNER_ID");
+    }
+
+    @Test
+    void finishedBookingLookupUsesBookerItemIndex() {
+        assertPlanUses(() -> bookingRepository.findEndsByUserIdAndItemIdAndStatusAndBookingDateEndBefore(
+                1, 1, BookingStatus.APPROVED, NOW, FIRST), "IX_BOOKING_USER_ITEM_END");
+    }
+
+    @Test
+    void archivedBookingLookupUsesBookerItemIndex() {
+        assertPlanUses(() -> bookingArchiveRepository.findEndsByUserIdAndItemIdAndStatusAndBookingDateEndBefore(
+                1, 1, BookingStatus.APPROVED, NOW, FIRST), "IX_BOOKING_ARCHIVE_USER_ITEM_END");
+    }
+
+    @Test
+    void lastAndNextBookingUseItemStartIndex() {
+        assertPlanUses(() -> bookingRepository.findBookingRefsStartedBefore(1, BookingStatus.REJECTED, NOW, PAGE),
+                "IX_BOOKING_ITEM_START");
+        assertPlanUses(() -> bookingRepository.findBookingRefsStartingAfter(1, BookingStatus.REJECTED, NOW, PAGE),
+                "IX_BOOKING_ITEM_START");
+    }
+
+    @Test
+    void itemIntervalsUseItemStartIndex() {
+        assertPlanUses(() -> bookingRepository.findIntervalsOfItemOverlapping(1, BookingStatus.REJECTED,
+                NOW, NOW.plusDays(30)), "IX_BOOKING_ITEM_START");
+    }
+
+    @Test
+    void activeIntervalsUseEndIndex() {
+        assertPlanUses(() -> bookingRepository.findAllIntervalsByStatusInAndEndAfter(
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), NOW.plusDays(300)), "IX_BOOKING_END");
+    }
+
+    @Test
+    void bookingStateUsesPrimaryKey() {
+        assertPlanUses(() -> bookingRepository.findStateById(1), "PRIMARY_KEY");
+    }
+
+    @Test
+    void ownerItemsLookUpOwnerAndCommentItem() {
+        assertPlanLooksUp(() -> itemRepository.findAllByOwnerIdWithComments(1), "USER_ID");
+        assertPlanLooksUp(() -> itemRepository.findAllByOwnerIdWithComments(1), "ITEM_ID");
+    }
+
+    private void assertPlanUses(Runnable query, String... indexes) {
+        String plan = planOf(query);
+
+        assertThat(plan).as(plan).contains(indexes);
+    }
+
+    /**
+     * H2 backs every foreign key with an index of its own unless a single-column one already exists,
+     * and the foreign keys of the initial schema predate all indexes, so lookups on a referencing column
+     * may go through that index instead of the one added for the query.
+     * The plan must then contain an index lookup on the column.
+     */
+    private void assertPlanLooksUp(Runnable query, String column) {
+        String plan = planOf(query);
+
+        assertThat(plan).as(plan).containsPattern("PUBLIC\\.\\w+: " + column + " = ");
+    }
+
+    /**
+     * Plan of the last SELECT the query sent; fails if any table in it is scanned.
+     */
+    private String planOf(Runnable query) {
+        STATEMENTS.clear();
+        query.run();
+
+        String sql = STATEMENTS.stream()
+                .filter(statement -> statement.toLowerCase(Locale.ROOT).startsWith("select"))
+                .reduce((first, second) -> second)
+                .orElseThrow(() -> new AssertionError("No SELECT was captured"));
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+
+        assertThat(plan).as(plan).doesNotContain("tableScan");
+
+        return plan;
+    }
+
+    @TestConfiguration
+    static class CaptureConfig {
+
+        @Bean
+        HibernatePropertiesCustomizer statementCapture() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                STATEMENTS.add(sql);
+
+                return sql;
+            });
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.booking.archive;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingArchiverTests {
+
+    private static final int AFTER_DAYS = 30;
+
+    private static final int BATCH_SIZE = 2;
+
+    private final TreeSet<Long> hot = new TreeSet<>(List.of(1L, 2L, 3L, 4L, 5L));
+
+    private final List<Long> archived = new ArrayList<>();
+
+    private final List<Optional<LocalDateTime>> watermarkAtCopy = new ArrayList<>();
+
+    private BookingArchiveRepository bookingArchiveRepository;
+
+    private BookingArchiveWatermark watermark;
+
+    private BookingArchiver archiver;
+
+    private Long failOn;
+
+    @BeforeEach
+    void setUp() {
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        bookingArchiveRepository = mock(BookingArchiveRepository.class);
+        watermark = new BookingArchiveWatermark(bookingArchiveRepository);
+        archiver = new BookingArchiver(bookingRepository, bookingArchiveRepository, watermark,
+                mock(PlatformTransactionManager.class), AFTER_DAYS, BATCH_SIZE);
+
+        when(bookingRepository.findIdsEndedBefore(any(), anyLong(), any())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(1);
+            Pageable pageable = invocation.getArgument(2);
+
+            return hot.tailSet(afterId, false).stream().limit(pageable.getPageSize()).collect(Collectors.toList());
+        });
+        when(bookingArchiveRepository.copyFromBooking(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            watermarkAtCopy.add(watermark.get());
+
+            if (failOn != null && ids.contains(failOn)) throw new IllegalStateException("copy failed");
+
+            archived.addAll(ids);
+
+            return ids.size();
+        });
+        when(bookingRepository.deleteByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            hot.removeAll(ids);
+
+            return ids.size();
+        });
+    }
+
+    @Test
+    void movesEveryEndedBookingInBatches() {
+        archiver.archive();
+
+        assertThat(archived).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(hot).isEmpty();
+        assertThat(watermarkAtCopy).hasSize(3).allMatch(Optional::isPresent);
+    }
+
+    @Test
+    void nextRunResumesAfterPartialBatchFailure() {
+        failOn = 3L;
+        LocalDateTime before = LocalDateTime.now().minusDays(AFTER_DAYS);
+
+        archiver.archive();
+
+        assertThat(archived).containsExactly(1L, 2L);
+        assertThat(hot).containsExactly(3L, 4L, 5L);
+        assertThat(watermark.get()).hasValueSatisfying(end -> assertThat(end).isAfterOrEqualTo(before));
+
+        failOn = null;
+        archiver.archive();
+
+        assertThat(archived).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(hot).isEmpty();
+    }
+
+    @Test
+    void watermarkIsLoadedFromArchiveAndNeverMovesBack() {
+        LocalDateTime future = LocalDateTime.now().plusDays(1);
+        when(bookingArchiveRepository.findMaxEnd()).thenReturn(Optional.of(future));
+        watermark.load();
+
+        archiver.archive();
+
+        assertThat(watermark.get()).contains(future);
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingIntervalIndexTests {
+
+    private static final long ITEM_ID = 7;
+
+    private final LocalDateTime base = LocalDateTime.now().plusDays(10).withNano(0);
+
+    private BookingRepository bookingRepository;
+
+    private BookingIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        index = new BookingIntervalIndex(bookingRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void rebuildKeepsBookingsWithEqualStarts() {
+        rebuildWith(interval(1, 0, 2), interval(2, 0, 5));
+
+        assertThat(index.hasOverlap(ITEM_ID, at(3), at(4))).isTrue();
+    }
+
+    @Test
+    void removingOneOfEqualStartsKeepsTheOther() {
+        rebuildWith(interval(1, 0, 2), interval(2, 0, 5));
+
+        index.release(ITEM_ID, 1);
+
+        assertThat(index.hasOverlap(ITEM_ID, at(1), at(2))).isTrue();
+        index.release(ITEM_ID, 2);
+        assertThat(index.hasOverlap(ITEM_ID, at(1), at(2))).isFalse();
+    }
+
+    @Test
+    void touchingIntervalsDoNotOverlap() {
+        index.reserve(ITEM_ID, 1, at(2), at(4));
+
+        assertThat(index.hasOverlap(ITEM_ID, at(0), at(2))).isFalse();
+        assertThat(index.hasOverlap(ITEM_ID, at(4), at(6))).isFalse();
+        assertThat(index.hasOverlap(ITEM_ID, at(3), at(6))).isTrue();
+    }
+
+    @Test
+    void findsLongLegacyIntervalBehindShorterOnes() {
+        rebuildWith(interval(1, 0, 20), interval(2, 1, 2), interval(3, 3, 4));
+
+        assertThat(index.hasOverlap(ITEM_ID, at(5), at(6))).isTrue();
+        assertThat(index.hasOverlap(ITEM_ID, at(20), at(21))).isFalse();
+    }
+
+    @Test
+    void reserveIsUndoneOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.reserve(ITEM_ID, 1, at(0), at(2));
+
+        assertThat(index.hasOverlap(ITEM_ID, at(1), at(3))).isTrue();
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(index.hasOverlap(ITEM_ID, at(1), at(3))).isFalse();
+    }
+
+    @Test
+    void reserveIsKeptOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.reserve(ITEM_ID, 1, at(0), at(2));
+
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(index.hasOverlap(ITEM_ID, at(1), at(3))).isTrue();
+    }
+
+    @Test
+    void releaseAppliesOnlyAfterCommit() {
+        index.reserve(ITEM_ID, 1, at(0), at(2));
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.release(ITEM_ID, 1);
+
+        assertThat(index.hasOverlap(ITEM_ID, at(1), at(3))).isTrue();
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(index.hasOverlap(ITEM_ID, at(1), at(3))).isFalse();
+    }
+
+    @Test
+    void releaseDoesNotDependOnStartPrecision() {
+        index.reserve(ITEM_ID, 1, at(0).plusNanos(123_456_789), at(2));
+
+        index.release(ITEM_ID, 1);
+
+        assertThat(index.hasOverlap(ITEM_ID, at(0), at(3))).isFalse();
+    }
+
+    @Test
+    void locksForIsOrderedAndDistinct() {
+        assertThat(index.locksFor(List.of(65L, 1L, 1L))).containsExactly(index.lockFor(1));
+        assertThat(index.locksFor(List.of(3L, 2L))).containsExactly(index.lockFor(2), index.lockFor(3));
+    }
+
+    private void rebuildWith(BookingIntervalDto... intervals) {
+        when(bookingRepository.findAllIntervalsByStatusInAndEndAfter(anyCollection(), any()))
+                .thenReturn(List.of(intervals));
+        index.rebuild();
+    }
+
+    private static void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private BookingIntervalDto interval(long bookingId, int fromHour, int toHour) {
+        return new BookingIntervalDto(bookingId, ITEM_ID, at(fromHour), at(toHour));
+    }
+
+    private LocalDateTime at(int hour) {
+        return base.plusHours(hour);
+    }
+}
@@ -0,0 +1,354 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.archive.BookingArchiver;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.exception.exceptionimp.BadRequestException;
+import ru.practicum.shareit.exception.exceptionimp.ConflictException;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoWithBooking;
+import ru.practicum.shareit.item.dto.UpdateItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.CreateUserDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-service")
+class BookingServiceTests {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private static final AtomicLong PAST_BOOKING_ID = new AtomicLong(1_000_000);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingArchiver bookingArchiver;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserDto owner;
+
+    private UserDto booker;
+
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        owner = createUser("owner");
+        booker = createUser("booker");
+        item = itemService.createItem(owner.getId(), createItemDto("Drill"));
+    }
+
+    @Test
+    void pageStartsAtExactOffset() {
+        List<Long> ids = IntStream.range(0, 7)
+                .mapToObj(i -> createFutureBooking(item).getId())
+                .collect(Collectors.toList());
+
+        List<Long> all = idsOf(bookingService.getAllUserBooking(booker.getId(), "ALL", 0, null, null));
+        List<Long> page = idsOf(bookingService.getAllUserBooking(booker.getId(), "ALL", 3, 2, null));
+
+        assertThat(all).containsExactlyInAnyOrderElementsOf(ids);
+        assertThat(page).containsExactlyElementsOf(all.subList(3, 5));
+    }
+
+    @Test
+    void parallelCreatesKeepEarliestNextBooking() throws Exception {
+        List<CreateBookingDto> dtos = IntStream.rangeClosed(1, 8)
+                .mapToObj(i -> createBookingDto(item, 100 - i * 3L))
+                .collect(Collectors.toList());
+        ExecutorService executor = Executors.newFixedThreadPool(dtos.size());
+
+        try {
+            List<Future<BookingDto>> futures = new ArrayList<>();
+            dtos.forEach(dto -> futures.add(executor.submit(() -> bookingService.createBooking(booker.getId(), dto))));
+
+            for (Future<BookingDto> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        LocalDateTime earliest = dtos.get(dtos.size() - 1).getStart();
+
+        assertThat(nextBookingStartOf(item)).isEqualToIgnoringNanos(earliest);
+    }
+
+    @Test
+    void itemUpdateKeepsBookingReferences() {
+        BookingDto booking = createFutureBooking(item);
+        UpdateItemDto dto = new UpdateItemDto();
+        dto.setUserId(owner.getId());
+        dto.setItemId(item.getId());
+        dto.setName("Hammer drill");
+
+        itemService.updateItem(dto);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT next_booking_id FROM items WHERE id = ?",
+                Long.class, item.getId())).isEqualTo(booking.getId());
+    }
+
+    @Test
+    void startedNextBookingIsRolledForwardOnRead() {
+        long startedId = insertBooking(LocalDateTime.now().minusHours(1), BookingStatus.APPROVED);
+        jdbcTemplate.update("UPDATE items SET next_booking_id = ?, next_booker_id = ?, next_booking_start = "
+                        + "(SELECT booking_date_start FROM booking WHERE id = ?) WHERE id = ?",
+                startedId, booker.getId(), startedId, item.getId());
+        BookingDto next = createFutureBooking(item);
+
+        ItemDtoWithBooking itemDto = itemService.getOwnersItems(owner.getId()).stream()
+                .filter(dto -> dto.getId() == item.getId())
+                .findFirst()
+                .orElseThrow();
+
+        assertThat(itemDto.getLastBooking().getId()).isEqualTo(startedId);
+        assertThat(itemDto.getNextBooking().getId()).isEqualTo(next.getId());
+        assertThat(jdbcTemplate.queryForObject("SELECT last_booking_id FROM items WHERE id = ?",
+                Long.class, item.getId())).isEqualTo(startedId);
+        assertThat(jdbcTemplate.queryForObject("SELECT next_booking_id FROM items WHERE id = ?",
+                Long.class, item.getId())).isEqualTo(next.getId());
+    }
+
+    @Test
+    void archivedBookingStaysLastBookingOfItem() {
+        long archivedId = insertBooking(LocalDateTime.now().minusDays(400), BookingStatus.APPROVED);
+        bookingArchiver.archive();
+        BookingDto next = createFutureBooking(item);
+
+        bookingService.approveBooking(owner.getId(), next.getId(), false);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT last_booking_id FROM items WHERE id = ?",
+                Long.class, item.getId())).isEqualTo(archivedId);
+        assertThat(bookingService.getBookingById(booker.getId(), archivedId).getStatus())
+                .isEqualTo(BookingStatus.APPROVED);
+    }
+
+    @Test
+    void batchReportsEveryEntryInOrder() {
+        ItemDto other = itemService.createItem(owner.getId(), createItemDto("Saw"));
+        BookingDto existing = createFutureBooking(item);
+        CreateBookingDto clash = createBookingDto(item, 0);
+        clash.setStart(existing.getStart());
+        clash.setEnd(existing.getEnd());
+        CreateBookingDto first = createBookingDto(other, SEQUENCE.incrementAndGet());
+        CreateBookingDto sameWindow = createBookingDto(other, 0);
+        sameWindow.setStart(first.getStart());
+        sameWindow.setEnd(first.getEnd());
+        CreateBookingDto missingItem = createBookingDto(item, SEQUENCE.incrementAndGet());
+        missingItem.setItemId(Long.MAX_VALUE);
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(booker.getId(),
+                List.of(first, clash, missingItem, sameWindow, createBookingDto(item, SEQUENCE.incrementAndGet())));
+
+        assertThat(results).extracting(BookingBatchResultDto::getIndex).containsExactly(0, 1, 2, 3, 4);
+        assertThat(results).extracting(BookingBatchResultDto::getCode).containsExactly(201, 400, 404, 400, 201);
+        assertThat(results.get(0).getBooking().getItem().getId()).isEqualTo(other.getId());
+    }
+
+    @Test
+    void batchesOverSameItemsInOppositeOrderDoNotDeadlock() throws Exception {
+        ItemDto other = itemService.createItem(owner.getId(), createItemDto("Saw"));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            List<Future<List<BookingBatchResultDto>>> futures = new ArrayList<>();
+
+            for (int round = 0; round < 10; round++) {
+                List<CreateBookingDto> forward = List.of(
+                        createBookingDto(item, SEQUENCE.incrementAndGet()),
+                        createBookingDto(other, SEQUENCE.incrementAndGet()));
+                List<CreateBookingDto> backward = List.of(
+                        createBookingDto(other, SEQUENCE.incrementAndGet()),
+                        createBookingDto(item, SEQUENCE.incrementAndGet()));
+                futures.add(executor.submit(() -> bookingService.createBookings(booker.getId(), forward)));
+                futures.add(executor.submit(() -> bookingService.createBookings(booker.getId(), backward)));
+            }
+
+            for (Future<List<BookingBatchResultDto>> future : futures) {
+                assertThat(future.get(30, TimeUnit.SECONDS))
+                        .extracting(BookingBatchResultDto::getCode)
+                        .containsOnly(201);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void batchDecisionChangesOnlyWaitingBookingsOfOwner() {
+        UserDto stranger = createUser("stranger");
+        ItemDto foreign = itemService.createItem(stranger.getId(), createItemDto("Saw"));
+        BookingDto waiting = createFutureBooking(item);
+        BookingDto decided = createFutureBooking(item);
+        bookingService.approveBooking(owner.getId(), decided.getId(), true);
+        BookingDto ofStranger = createFutureBooking(foreign);
+        BookingDecisionDto dto = new BookingDecisionDto();
+        dto.setBookingIds(List.of(ofStranger.getId(), waiting.getId(), Long.MAX_VALUE, decided.getId(), waiting.getId()));
+        dto.setApproved(false);
+
+        BookingDecisionResultDto result = bookingService.decideBookings(owner.getId(), dto);
+
+        assertThat(result.getStatus()).isEqualTo(BookingStatus.REJECTED);
+        assertThat(result.getChanged()).containsExactly(waiting.getId());
+        assertThat(result.getUnchanged()).containsExactly(ofStranger.getId(), Long.MAX_VALUE, decided.getId());
+        assertThat(bookingService.getBookingById(booker.getId(), ofStranger.getId()).getStatus())
+                .isEqualTo(BookingStatus.WAITING);
+
+        CreateBookingDto sameWindow = createBookingDto(item, 0);
+        sameWindow.setStart(waiting.getStart());
+        sameWindow.setEnd(waiting.getEnd());
+
+        assertThat(bookingService.createBooking(booker.getId(), sameWindow).getStatus())
+                .isEqualTo(BookingStatus.WAITING);
+    }
+
+    @Test
+    void concurrentDecisionsKeepIndexInStepWithStatus() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            for (int round = 0; round < 10; round++) {
+                BookingDto booking = createFutureBooking(item);
+                CountDownLatch start = new CountDownLatch(1);
+                Future<BookingDto> approve = executor.submit(() -> {
+                    start.await();
+
+                    return bookingService.approveBooking(owner.getId(), booking.getId(), true);
+                });
+                Future<BookingDto> reject = executor.submit(() -> {
+                    start.await();
+
+                    return bookingService.approveBooking(owner.getId(), booking.getId(), false);
+                });
+                start.countDown();
+
+                List<BookingStatus> decided = new ArrayList<>();
+
+                for (Future<BookingDto> decision : List.of(approve, reject)) {
+                    try {
+                        decided.add(decision.get(30, TimeUnit.SECONDS).getStatus());
+                    } catch (ExecutionException exc) {
+                        assertThat(exc.getCause()).isInstanceOfAny(ConflictException.class, BadRequestException.class);
+                    }
+                }
+
+                BookingStatus status = bookingService.getBookingById(booker.getId(), booking.getId()).getStatus();
+                CreateBookingDto sameWindow = createBookingDto(item, 0);
+                sameWindow.setStart(booking.getStart());
+                sameWindow.setEnd(booking.getEnd());
+
+                assertThat(decided).isNotEmpty().contains(status);
+
+                if (status == BookingStatus.APPROVED) {
+                    assertThatThrownBy(() -> bookingService.createBooking(booker.getId(), sameWindow))
+                            .isInstanceOf(BadRequestException.class);
+                } else {
+                    bookingService.createBooking(booker.getId(), sameWindow);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectedBookingCanBeRejectedAgainAndApproved() {
+        long bookingId = createFutureBooking(item).getId();
+        bookingService.approveBooking(owner.getId(), bookingId, false);
+
+        assertThat(bookingService.approveBooking(owner.getId(), bookingId, false).getStatus())
+                .isEqualTo(BookingStatus.REJECTED);
+        assertThat(bookingService.approveBooking(owner.getId(), bookingId, true).getStatus())
+                .isEqualTo(BookingStatus.APPROVED);
+        assertThatThrownBy(() -> bookingService.approveBooking(owner.getId(), bookingId, false))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private long insertBooking(LocalDateTime start, BookingStatus status) {
+        long id = PAST_BOOKING_ID.incrementAndGet();
+        jdbcTemplate.update("INSERT INTO booking (id, booking_date_start, booking_date_end, status, user_id, item_id, "
+                        + "owner_id) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                id, Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)),
+                status.name(), booker.getId(), item.getId(), owner.getId());
+
+        return id;
+    }
+
+    private LocalDateTime nextBookingStartOf(ItemDto target) {
+        return jdbcTemplate.queryForObject("SELECT next_booking_start FROM items WHERE id = ?",
+                LocalDateTime.class, target.getId());
+    }
+
+    private static List<Long> idsOf(List<BookingDto> bookings) {
+        return bookings.stream().map(BookingDto::getId).collect(Collectors.toList());
+    }
+
+    private UserDto createUser(String name) {
+        long n = SEQUENCE.incrementAndGet();
+        CreateUserDto dto = new CreateUserDto();
+        dto.setName(name + n);
+        dto.setEmail(name + n + "@example.com");
+
+        return userService.createUser(dto);
+    }
+
+    private static CreateItemDto createItemDto(String name) {
+        CreateItemDto dto = new CreateItemDto();
+        dto.setName(name);
+        dto.setDescription(name + " for rent");
+        dto.setAvailable(true);
+
+        return dto;
+    }
+
+    private BookingDto createFutureBooking(ItemDto target) {
+        return bookingService.createBooking(booker.getId(), createBookingDto(target, SEQUENCE.incrementAndGet()));
+    }
+
+    private static CreateBookingDto createBookingDto(ItemDto target, long daysAhead) {
+        LocalDateTime start = LocalDateTime.now().plusDays(daysAhead);
+        CreateBookingDto dto = new CreateBookingDto();
+        dto.setItemId(target.getId());
+        dto.setStart(start);
+        dto.setEnd(start.plusHours(1));
+
+        return dto;
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.item.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.ItemBookingCountDto;
+import ru.practicum.shareit.booking.enums.BookingStatus;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+import ru.practicum.shareit.item.dto.ItemTextDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemSuggestTrieTests {
+
+    private ItemRepository itemRepository;
+
+    private BookingRepository bookingRepository;
+
+    private ItemSuggestTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = mock(ItemRepository.class);
+        bookingRepository = mock(BookingRepository.class);
+        when(itemRepository.findAllAvailableTexts()).thenReturn(List.of(
+                new ItemTextDto(1, "Drill", ""),
+                new ItemTextDto(2, "Drive", ""),
+                new ItemTextDto(3, "Drill press", ""),
+                new ItemTextDto(4, "Saw", "")));
+        when(bookingRepository.countBookingsPerItem(BookingStatus.REJECTED)).thenReturn(List.of(
+                new ItemBookingCountDto(1, 2),
+                new ItemBookingCountDto(3, 5)));
+        trie = new ItemSuggestTrie(itemRepository, bookingRepository);
+        trie.rebuild();
+    }
+
+    @Test
+    void suggestsMostBookedFirst() {
+        assertThat(ids("dr")).containsExactly(3L, 1L, 2L);
+        assertThat(ids("DRILL ")).containsExactly(3L, 1L);
+        assertThat(ids("drilx")).isEmpty();
+        assertThat(trie.suggest("dr", 1)).extracting(ItemSuggestionDto::getBookings).containsExactly(5L);
+    }
+
+    @Test
+    void renameSplitsExistingEdge() {
+        trie.onItemChanged(new ItemChangedEvent(4, "Drum", "", true));
+
+        assertThat(ids("dr")).containsExactly(3L, 1L, 2L, 4L);
+        assertThat(ids("dri")).containsExactly(3L, 1L, 2L);
+        assertThat(ids("dru")).containsExactly(4L);
+        assertThat(ids("s")).isEmpty();
+    }
+
+    @Test
+    void deleteMergesSingleChildIntoParent() {
+        trie.onItemChanged(new ItemChangedEvent(2, "Drive", "", false));
+
+        assertThat(ids("dri")).containsExactly(3L, 1L);
+        assertThat(ids("driv")).isEmpty();
+
+        trie.onItemChanged(new ItemChangedEvent(1, "Drill", "", false));
+
+        assertThat(ids("drill")).containsExactly(3L);
+        assertThat(ids("drill p")).containsExactly(3L);
+        assertThat(ids("d")).containsExactly(3L);
+    }
+
+    @Test
+    void renameBackRestoresSuggestions() {
+        trie.onItemChanged(new ItemChangedEvent(1, "Hammer", "", true));
+
+        assertThat(ids("drill")).containsExactly(3L);
+        assertThat(ids("ham")).containsExactly(1L);
+
+        trie.onItemChanged(new ItemChangedEvent(1, "Drill", "", true));
+
+        assertThat(ids("dr")).containsExactly(3L, 1L, 2L);
+        assertThat(ids("h")).isEmpty();
+    }
+
+    @Test
+    void deletedUserDropsOwnedItemsAndRecountsBookedOnes() {
+        when(bookingRepository.countBookingsOfItem(1, BookingStatus.REJECTED)).thenReturn(0L);
+
+        trie.onUserDeleted(new UserDeletedEvent(9, Set.of(3L), Set.of(1L)));
+
+        assertThat(ids("dr")).containsExactly(1L, 2L);
+        assertThat(trie.suggest("drill", 10)).extracting(ItemSuggestionDto::getBookings).containsExactly(0L);
+    }
+
+    @Test
+    void incrementalUpdatesMatchRebuild() {
+        trie.onItemChanged(new ItemChangedEvent(4, "Drip tray", "", true));
+        trie.onItemChanged(new ItemChangedEvent(2, "Drive", "", false));
+        trie.onItemChanged(new ItemChangedEvent(5, "Drill bit", "", true));
+        trie.onBookingChanged(new BookingChangedEvent(10, 5, 7, null, BookingStatus.WAITING, null, null));
+        trie.onBookingChanged(new BookingChangedEvent(11, 4, 7, null, BookingStatus.WAITING, null, null));
+        trie.onBookingChanged(new BookingChangedEvent(11, 4, 7, BookingStatus.WAITING, BookingStatus.REJECTED,
+                null, null));
+        trie.onItemChanged(new ItemChangedEvent(1, "Saw blade", "", true));
+
+        when(itemRepository.findAllAvailableTexts()).thenReturn(List.of(
+                new ItemTextDto(1, "Saw blade", ""),
+                new ItemTextDto(3, "Drill press", ""),
+                new ItemTextDto(4, "Drip tray", ""),
+                new ItemTextDto(5, "Drill bit", "")));
+        when(bookingRepository.countBookingsPerItem(BookingStatus.REJECTED)).thenReturn(List.of(
+                new ItemBookingCountDto(1, 2),
+                new ItemBookingCountDto(3, 5),
+                new ItemBookingCountDto(5, 1)));
+        ItemSuggestTrie rebuilt = new ItemSuggestTrie(itemRepository, bookingRepository);
+        rebuilt.rebuild();
+
+        for (String name : List.of("saw blade", "drill press", "drip tray", "drill bit", "drive")) {
+            for (int length = 0; length <= name.length(); length++) {
+                String prefix = name.substring(0, length);
+
+                assertThat(trie.suggest(prefix, 10)).as(prefix).isEqualTo(rebuilt.suggest(prefix, 10));
+            }
+        }
+    }
+
+    private List<Long> ids(String prefix) {
+        return trie.suggest(prefix, 10).stream().map(ItemSuggestionDto::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemTextDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemTrigramIndexTests {
+
+    private static final List<String> QUERIES = List.of("дрель", "дрел", "отвертка", "отвёртка", "пила", "мощная");
+
+    private ItemRepository itemRepository;
+
+    private ItemTrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAllAvailableTexts()).thenReturn(List.of(
+                new ItemTextDto(1, "Дрель", "Мощная дрель"),
+                new ItemTextDto(2, "Отвертка", "Аккумуляторная отвертка"),
+                new ItemTextDto(3, "Дрель ударная", "Для бетона")));
+        index = new ItemTrigramIndex(itemRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void misspelledQueryFindsBestMatchFirst() {
+        assertThat(index.search("дрел", 10)).containsExactly(1L, 3L);
+        assertThat(index.search("отвёртка", 10)).containsExactly(2L);
+    }
+
+    @Test
+    void renamedItemIsFoundByNewNameOnly() {
+        index.onItemChanged(new ItemChangedEvent(1, "Пила", "Ручная пила", true));
+
+        assertThat(index.search("дрель", 10)).containsExactly(3L);
+        assertThat(index.search("пила", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void unavailableItemIsDropped() {
+        index.onItemChanged(new ItemChangedEvent(3, "Дрель ударная", "Для бетона", false));
+
+        assertThat(index.search("дрель", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void itemsOfDeletedUserAreDropped() {
+        index.onUserDeleted(new UserDeletedEvent(5, Set.of(1L, 2L), Set.of()));
+
+        assertThat(index.search("дрель", 10)).containsExactly(3L);
+        assertThat(index.search("отвертка", 10)).isEmpty();
+    }
+
+    @Test
+    void filterAndLimitApplyToRankedMatches() {
+        assertThat(index.search("дрель", 1)).containsExactly(1L);
+        assertThat(index.search("дрель", 1, itemId -> itemId != 1)).containsExactly(3L);
+    }
+
+    @Test
+    void incrementalUpdatesMatchRebuild() {
+        index.onItemChanged(new ItemChangedEvent(1, "Пила", "Мощная пила", true));
+        index.onItemChanged(new ItemChangedEvent(4, "Отвертка", "Крестовая", true));
+        index.onItemChanged(new ItemChangedEvent(3, "Дрель ударная", "Для бетона", false));
+        index.onUserDeleted(new UserDeletedEvent(5, Set.of(2L), Set.of()));
+
+        when(itemRepository.findAllAvailableTexts()).thenReturn(List.of(
+                new ItemTextDto(1, "Пила", "Мощная пила"),
+                new ItemTextDto(4, "Отвертка", "Крестовая")));
+        ItemTrigramIndex rebuilt = new ItemTrigramIndex(itemRepository);
+        rebuilt.rebuild();
+
+        for (String query : QUERIES) {
+            assertThat(index.search(query, 10)).as(query).isEqualTo(rebuilt.search(query, 10));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.FreeIntervalDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.CreateUserDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:item-service")
+class ItemServiceTests {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    private UserDto owner;
+
+    private UserDto booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = createUser("owner");
+        booker = createUser("booker");
+    }
+
+    @Test
+    void searchMatchesWordPrefixes() {
+        ItemDto drill = createItem("Дрель " + SEQUENCE.incrementAndGet(), "Аккумуляторная дрель");
+        ItemDto ladder = createItem("Лестница " + SEQUENCE.incrementAndGet(), "Стремянка из дерева");
+
+        assertThat(searchExact("дре")).contains(drill.getId()).doesNotContain(ladder.getId());
+        assertThat(searchExact("акку дре")).contains(drill.getId());
+    }
+
+    @Test
+    void searchDoesNotMatchInsideWords() {
+        ItemDto ladder = createItem("Стремянка " + SEQUENCE.incrementAndGet(), "Алюминиевая");
+
+        assertThat(searchExact("ремянка")).doesNotContain(ladder.getId());
+        assertThat(searchExact("СТРЕМ")).contains(ladder.getId());
+    }
+
+    @Test
+    void windowedSearchSkipsBookedMatches() {
+        String word = "Вибротрамбовка" + SEQUENCE.incrementAndGet();
+        LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+        LocalDateTime to = from.plusDays(1);
+        ItemDto first = createItem(word, "Бензиновая");
+        ItemDto second = createItem(word, "Бензиновая");
+        ItemDto free = createItem(word, "Бензиновая");
+        book(first, from, to);
+        book(second, from.minusHours(1), from.plusHours(1));
+
+        for (String mode : List.of("EXACT", "FUZZY")) {
+            assertThat(itemService.getAvailableItemsBySearchString(word, mode, 1, from, to))
+                    .extracting(ItemDto::getId)
+                    .containsExactly(free.getId());
+        }
+    }
+
+    @Test
+    void availabilityFollowsNewBookings() {
+        ItemDto drill = createItem("Drill " + SEQUENCE.incrementAndGet(), "Cordless");
+        LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+        LocalDateTime to = from.plusDays(10);
+        book(drill, from.plusDays(2), from.plusDays(3));
+
+        assertThat(itemService.getAvailability(drill.getId(), from, to)).extracting(FreeIntervalDto::getStart)
+                .containsExactly(from, from.plusDays(3));
+        assertThat(itemService.getAvailability(drill.getId(), from.plusHours(1), to))
+                .extracting(FreeIntervalDto::getStart)
+                .containsExactly(from.plusHours(1), from.plusDays(3));
+
+        book(drill, from.plusDays(5), from.plusDays(6));
+
+        assertThat(itemService.getAvailability(drill.getId(), from, to)).extracting(FreeIntervalDto::getEnd)
+                .containsExactly(from.plusDays(2), from.plusDays(5), to);
+    }
+
+    @Test
+    void availabilityOfPastWindowIsReadFromBookings() {
+        ItemDto drill = createItem("Drill " + SEQUENCE.incrementAndGet(), "Cordless");
+        LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+        book(drill, from, from.plusDays(1));
+
+        assertThat(itemService.getAvailability(drill.getId(), from.minusDays(10), from.plusDays(2)))
+                .extracting(FreeIntervalDto::getEnd)
+                .containsExactly(from, from.plusDays(2));
+    }
+
+    private void book(ItemDto target, LocalDateTime start, LocalDateTime end) {
+        CreateBookingDto dto = new CreateBookingDto();
+        dto.setItemId(target.getId());
+        dto.setStart(start);
+        dto.setEnd(end);
+        bookingService.createBooking(booker.getId(), dto);
+    }
+
+    private List<Long> searchExact(String text) {
+        return itemService.getAvailableItemsBySearchString(text, "EXACT", 1000, null, null).stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private ItemDto createItem(String name, String description) {
+        CreateItemDto dto = new CreateItemDto();
+        dto.setName(name);
+        dto.setDescription(description);
+        dto.setAvailable(true);
+
+        return itemService.createItem(owner.getId(), dto);
+    }
+
+    private UserDto createUser(String name) {
+        long n = SEQUENCE.incrementAndGet();
+        CreateUserDto dto = new CreateUserDto();
+        dto.setName(name + n);
+        dto.setEmail(name + n + "@example.com");
+
+        return userService.createUser(dto);
+    }
+}
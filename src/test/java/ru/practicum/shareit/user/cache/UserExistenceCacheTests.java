@@ -0,0 +1,56 @@
+package ru.practicum.shareit.user.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserExistenceCacheTests {
+
+    private UserRepository userRepository;
+
+    private UserExistenceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        cache = new UserExistenceCache(userRepository, 100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void missingUserIsLookedUpAgain() {
+        when(userRepository.existsById(1L)).thenReturn(false, true);
+
+        assertThat(cache.exists(1)).isFalse();
+        assertThat(cache.exists(1)).isTrue();
+    }
+
+    @Test
+    void existingUserIsCached() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertThat(cache.exists(1)).isTrue();
+        assertThat(cache.exists(1)).isTrue();
+        verify(userRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    void createdAndDeletedUsersUpdateTheCache() {
+        cache.markCreated(2);
+
+        assertThat(cache.exists(2)).isTrue();
+
+        cache.markDeleted(2);
+
+        assertThat(cache.exists(2)).isFalse();
+        verify(userRepository, times(1)).existsById(2L);
+    }
+}